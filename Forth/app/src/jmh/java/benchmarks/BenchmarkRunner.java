@@ -0,0 +1,24 @@
+package benchmarks;
+
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Runs benchmarks with GC profiler, so every result is printed as ops/s together
+ * with allocation rate(gc.alloc.rate and gc.alloc.rate.norm - bytes per operation)
+ * <p>
+ *     First argument is optional regular expression for choosing benchmarks,
+ *     e.g. {@code InterpreterBenchmark} or {@code Tokenizer.*scanner}
+ * </p>
+ */
+public class BenchmarkRunner {
+    public static void main(String[] args) throws RunnerException {
+        String include = args.length > 0 ? args[0] : "benchmarks\\..*Benchmark";
+        new Runner(new OptionsBuilder()
+                .include(include)
+                .addProfiler(GCProfiler.class)
+                .build()).run();
+    }
+}
@@ -0,0 +1,51 @@
+package benchmarks;
+
+import compiler.Dictionary;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.Writer;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares engines of execution: token - dispatch of {@code Token.execute},
+ * methodhandle - tree of method handles. Compilation of hot commands is turned
+ * off, so only dispatch is compared. Definitions are compiled once by interpreter
+ * of trial and each operation runs only the rest of program
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class EngineBenchmark {
+    @Param({"token", "methodhandle"})
+    public String engine;
+
+    @Param({"loopWord", "recursion", "nestedLoops", "branching"})
+    public String program;
+
+    private Object forth;
+    private String calls;
+
+    @Setup
+    public void setUp() throws Throwable {
+        System.setProperty("forth.engine", engine);
+        System.setProperty("forth.jit", "interpreter");
+        String[] parts = Interpreter.split(program);
+        forth = Interpreter.FORTH_EMBEDDED.invokeExact(Writer.nullWriter(), (Dictionary)null);
+        Interpreter.FORTH_EVAL.invokeExact(forth, parts[0]);
+        calls = parts[1];
+    }
+
+    @TearDown
+    public void tearDown() {
+        System.clearProperty("forth.engine");
+        System.clearProperty("forth.jit");
+    }
+
+    @Benchmark
+    public void run() throws Throwable {
+        Interpreter.FORTH_EVAL.invokeExact(forth, calls);
+    }
+}
@@ -0,0 +1,56 @@
+package benchmarks;
+
+import compiler.Dictionary;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Creation of tokens by {@code Factory}: {@code create} is a lookup of already
+ * loaded class with reflective instantiation, {@code configure} is reading of config.properties.
+ * {@code lookup} is a probe of perfect-hashed {@code Dictionary}, which is used by interpreter
+ * instead, {@code builtins} is its building at start
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class FactoryBenchmark {
+    @Param({"dup", "loop", "+"})
+    public String word;
+
+    private Object factory;
+    private Dictionary dictionary;
+
+    @Setup
+    public void setUp() throws Throwable {
+        factory = Interpreter.FACTORY.invokeExact();
+        Interpreter.FACTORY_CONFIGURE.invokeExact(factory, "config.properties");
+        Object loaded = Interpreter.FACTORY_CREATE.invokeExact(factory, word); // Class is loaded before measurement
+        dictionary = (Dictionary)Interpreter.BUILTINS.invokeExact();
+    }
+
+    @Benchmark
+    public Object create() throws Throwable {
+        return Interpreter.FACTORY_CREATE.invokeExact(factory, word);
+    }
+
+    @Benchmark
+    public Object lookup() {
+        return dictionary.get(word);
+    }
+
+    @Benchmark
+    public Object builtins() throws Throwable {
+        return (Dictionary)Interpreter.BUILTINS.invokeExact();
+    }
+
+    @Benchmark
+    public Object configure() throws Throwable {
+        Object fresh = Interpreter.FACTORY.invokeExact();
+        Interpreter.FACTORY_CONFIGURE.invokeExact(fresh, "config.properties");
+        return fresh;
+    }
+}
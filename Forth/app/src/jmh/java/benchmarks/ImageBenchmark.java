@@ -0,0 +1,62 @@
+package benchmarks;
+
+import compiler.Dictionary;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.io.Writer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Start of application made of generated definitions, each of them calls the previous one:
+ *     <p>compile - source is scanned and compiled by fresh interpreter</p>
+ *     <p>image - fresh interpreter loads image saved after compilation of the same source</p>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ImageBenchmark {
+    @Param({"100", "1000", "10000"})
+    public int definitions;
+
+    private String source;
+    private Path image;
+
+    @Setup
+    public void setUp() throws Throwable {
+        StringBuilder builder = new StringBuilder(": w0 1 +\n");
+        for(int i = 1; i < definitions; ++i) {
+            builder.append(": w").append(i).append(" w").append(i - 1)
+                    .append(" dup 3 * 2 + swap drop 5 = if 1 else 0 then ;\n");
+        }
+        source = builder.toString();
+        image = Files.createTempFile("forth", ".img");
+        Object forth = Interpreter.FORTH_EMBEDDED.invokeExact((Writer)new StringWriter(), (Dictionary)null);
+        Interpreter.FORTH_EVAL.invokeExact(forth, source + "save-image " + image);
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        Files.delete(image);
+    }
+
+    @Benchmark
+    public Object compile() throws Throwable {
+        Object forth = Interpreter.FORTH_EMBEDDED.invokeExact((Writer)new StringWriter(), (Dictionary)null);
+        Interpreter.FORTH_EVAL.invokeExact(forth, source);
+        return forth;
+    }
+
+    @Benchmark
+    public Object image() throws Throwable {
+        Object forth = Interpreter.FORTH_EMBEDDED.invokeExact((Writer)new StringWriter(), (Dictionary)null);
+        Interpreter.FORTH_EVAL.invokeExact(forth, "load-image " + image);
+        return forth;
+    }
+}
@@ -0,0 +1,109 @@
+package benchmarks;
+
+import compiler.Dictionary;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+
+/**
+ * {@code Interpreter} gives benchmarks access to {@code Forth}, {@code Factory} and {@code ReplServer}.
+ * Those classes are placed in unnamed package, which can't be imported and isn't
+ * supported by code generated by JMH, so they are bound once through method handles
+ */
+final class Interpreter {
+    static final MethodHandle FORTH;
+    static final MethodHandle FORTH_EMBEDDED;
+    static final MethodHandle FORTH_EVAL;
+    static final MethodHandle FACTORY;
+    static final MethodHandle FACTORY_CONFIGURE;
+    static final MethodHandle FACTORY_CREATE;
+    static final MethodHandle FACTORY_LOAD_ALL;
+    static final MethodHandle FACTORY_CLASSES;
+    static final MethodHandle BUILTINS;
+    static final MethodHandle REPL_SERVER;
+    static final MethodHandle REPL_SERVER_PORT;
+
+    static {
+        try {
+            MethodHandles.Lookup lookup = MethodHandles.publicLookup();
+            Class<?> forth = Class.forName("Forth");
+            Class<?> factory = Class.forName("Factory");
+            Class<?> server = Class.forName("ReplServer");
+            FORTH = lookup.findConstructor(forth, MethodType.methodType(void.class, InputStream.class))
+                    .asType(MethodType.methodType(Object.class, InputStream.class));
+            FORTH_EMBEDDED = lookup.findConstructor(forth, MethodType.methodType(void.class, Writer.class, Dictionary.class))
+                    .asType(MethodType.methodType(Object.class, Writer.class, Dictionary.class));
+            FORTH_EVAL = lookup.findVirtual(forth, "eval", MethodType.methodType(void.class, String.class))
+                    .asType(MethodType.methodType(void.class, Object.class, String.class));
+            FACTORY = lookup.findConstructor(factory, MethodType.methodType(void.class))
+                    .asType(MethodType.methodType(Object.class));
+            FACTORY_CONFIGURE = lookup.findVirtual(factory, "configure", MethodType.methodType(void.class, String.class))
+                    .asType(MethodType.methodType(void.class, Object.class, String.class));
+            FACTORY_CREATE = lookup.findVirtual(factory, "create", MethodType.methodType(Object.class, String.class))
+                    .asType(MethodType.methodType(Object.class, Object.class, String.class));
+            FACTORY_LOAD_ALL = lookup.findVirtual(factory, "loadAll", MethodType.methodType(void.class))
+                    .asType(MethodType.methodType(void.class, Object.class));
+            FACTORY_CLASSES = lookup.findVirtual(factory, "getClasses", MethodType.methodType(Map.class))
+                    .asType(MethodType.methodType(Map.class, Object.class));
+            BUILTINS = lookup.findStatic(forth, "createBuiltins", MethodType.methodType(Dictionary.class));
+            REPL_SERVER = lookup.findConstructor(server, MethodType.methodType(void.class, InetSocketAddress.class, int.class))
+                    .asType(MethodType.methodType(Object.class, InetSocketAddress.class, int.class));
+            REPL_SERVER_PORT = lookup.findVirtual(server, "getPort", MethodType.methodType(int.class))
+                    .asType(MethodType.methodType(int.class, Object.class));
+        } catch(ReflectiveOperationException exception) {
+            throw new ExceptionInInitializerError(exception);
+        }
+    }
+
+    private Interpreter() { }
+
+    /**
+     * @param name Name of program from resources/programs without extension
+     * @return Text of program
+     */
+    static byte[] program(String name) {
+        try(InputStream stream = Interpreter.class.getResourceAsStream("/programs/" + name + ".txt")) {
+            if(stream == null) {
+                throw new IllegalArgumentException("no program " + name);
+            }
+            return stream.readAllBytes();
+        } catch(IOException exception) {
+            throw new UncheckedIOException(exception);
+        }
+    }
+
+    /**
+     * Splits program to definitions and the rest of it, so benchmark can compile definitions
+     * once and measure only the lines which call them
+     * @param name Name of program from resources/programs without extension
+     * @return Lines which start with ':' and the other lines
+     */
+    static String[] split(String name) {
+        StringBuilder definitions = new StringBuilder();
+        StringBuilder calls = new StringBuilder();
+        for(String line : new String(program(name), StandardCharsets.UTF_8).split("\n")) {
+            (line.startsWith(":") ? definitions : calls).append(line).append('\n');
+        }
+        return new String[] {definitions.toString(), calls.toString()};
+    }
+
+    /**
+     * Interpreter prints to System.out, so it's replaced by stream which drops everything
+     * @return Previous System.out for restoring
+     */
+    static PrintStream muteOutput() {
+        PrintStream previous = System.out;
+        System.setOut(new PrintStream(OutputStream.nullOutputStream()));
+        return previous;
+    }
+}
@@ -0,0 +1,47 @@
+package benchmarks;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.io.ByteArrayInputStream;
+import java.io.PrintStream;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Runs whole programs from resources/programs through {@code Forth}, from
+ * configuring {@code Factory} till the end of input:
+ *     <p>factorial - the same program as factorialTest.txt</p>
+ *     <p>nestedLoops - sum of i + j for 300x300 do/loop</p>
+ *     <p>fibonacci - recursive fibonacci of 20 through self-defined command</p>
+ *     <p>branching - if/else nested in 30000 iterations</p>
+ *     <p>emit - 30000 emits with cr after every 100</p>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class InterpreterBenchmark {
+    @Param({"factorial", "nestedLoops", "fibonacci", "branching", "emit"})
+    public String program;
+
+    private byte[] text;
+    private PrintStream systemOut;
+
+    @Setup
+    public void setUp() {
+        text = Interpreter.program(program);
+        systemOut = Interpreter.muteOutput();
+    }
+
+    @TearDown
+    public void tearDown() {
+        System.setOut(systemOut);
+    }
+
+    @Benchmark
+    public Object run() throws Throwable {
+        return Interpreter.FORTH.invokeExact((java.io.InputStream)new ByteArrayInputStream(text));
+    }
+}
@@ -0,0 +1,57 @@
+package benchmarks;
+
+import compiler.Dictionary;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.Writer;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares modes of {@code TieredCompiler} on programs which spend their time
+ * inside of self-defined commands:
+ *     <p>loopWord - do/loop of 100 iterations in command called 3000 times</p>
+ *     <p>recursion - recursive fibonacci of 22</p>
+ * {@code verify} turns on and off {@code StackVerifier}, which removes checks of stack
+ * from verified sequences. Definitions are compiled once by interpreter of trial, each operation
+ * runs only the line which calls them, so hot commands are compiled during warmup
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JitBenchmark {
+    @Param({"interpreter", "tiered", "all"})
+    public String mode;
+
+    @Param({"loopWord", "recursion"})
+    public String program;
+
+    @Param({"true", "false"})
+    public String verify;
+
+    private Object forth;
+    private String calls;
+
+    @Setup
+    public void setUp() throws Throwable {
+        System.setProperty("forth.jit", mode);
+        System.setProperty("forth.verify", verify);
+        String[] parts = Interpreter.split(program);
+        forth = Interpreter.FORTH_EMBEDDED.invokeExact(Writer.nullWriter(), (Dictionary)null);
+        Interpreter.FORTH_EVAL.invokeExact(forth, parts[0]);
+        calls = parts[1];
+    }
+
+    @TearDown
+    public void tearDown() {
+        System.clearProperty("forth.jit");
+        System.clearProperty("forth.verify");
+    }
+
+    @Benchmark
+    public void run() throws Throwable {
+        Interpreter.FORTH_EVAL.invokeExact(forth, calls);
+    }
+}
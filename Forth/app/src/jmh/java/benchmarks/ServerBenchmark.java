@@ -0,0 +1,101 @@
+package benchmarks;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Load test of {@code ReplServer}: every benchmark thread is a loopback client with
+ * its own session, which sends line and waits for its answer. Sample time mode
+ * prints percentiles of latency(p0.50, p0.90, p0.99, p0.999...) for 256 clients
+ * working at the same time
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Threads(256)
+@Fork(1)
+public class ServerBenchmark {
+    private static final byte[] LINE = "10 sum drop\n".getBytes(StandardCharsets.UTF_8);
+    private static final String OK = "< ok\n> ";
+
+    private AutoCloseable server;
+    private Thread thread;
+    private int port;
+
+    @State(Scope.Thread)
+    public static class Client {
+        private Socket socket;
+        private InputStream in;
+        private OutputStream out;
+
+        @Setup
+        public void setUp(ServerBenchmark benchmark) throws IOException {
+            socket = new Socket("127.0.0.1", benchmark.port);
+            socket.setTcpNoDelay(true);
+            in = socket.getInputStream();
+            out = socket.getOutputStream();
+            readAnswer();
+            out.write(": sum 0 swap 0 do i + loop ;\n".getBytes(StandardCharsets.UTF_8));
+            check(readAnswer());
+            out.write(LINE);
+            check(readAnswer());
+        }
+
+        // Measured line must be answered by success, not by error
+        private static void check(String answer) {
+            if(!answer.equals(OK)) {
+                throw new IllegalStateException("unexpected answer: " + answer);
+            }
+        }
+
+        @TearDown
+        public void tearDown() throws IOException {
+            socket.close();
+        }
+
+        // Reads till prompt of the next line
+        private String readAnswer() throws IOException {
+            StringBuilder answer = new StringBuilder();
+            int previous = 0;
+            int symbol;
+            while((symbol = in.read()) >= 0) {
+                answer.append((char)symbol);
+                if(previous == '>' && symbol == ' ') {
+                    return answer.toString();
+                }
+                previous = symbol;
+            }
+            throw new IOException("connection closed");
+        }
+    }
+
+    @Setup
+    public void setUp() throws Throwable {
+        server = (AutoCloseable)(Object)Interpreter.REPL_SERVER.invokeExact(new InetSocketAddress("127.0.0.1", 0),
+                Runtime.getRuntime().availableProcessors());
+        port = (int)Interpreter.REPL_SERVER_PORT.invokeExact((Object)server);
+        thread = new Thread((Runnable)server);
+        thread.start();
+    }
+
+    @TearDown
+    public void tearDown() throws Exception {
+        server.close();
+        thread.join();
+    }
+
+    @Benchmark
+    public String roundTrip(Client client) throws IOException {
+        client.out.write(LINE);
+        return client.readAnswer();
+    }
+}
@@ -0,0 +1,57 @@
+package benchmarks;
+
+import context.Context;
+import data_types.IntStack;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Stack operations done by tokens: through {@code Context} as tokens do it
+ * and directly on {@code IntStack}. Each operation pushes two values and
+ * combines them like arithmetic tokens, values are big enough to be boxed
+ * by {@code Integer.valueOf} if stack boxed them
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class StackBenchmark {
+    private Context context;
+    private IntStack stack;
+    private int value = 1000;
+
+    @Setup
+    public void setUp() {
+        stack = new IntStack();
+        context = new Context.Builder().stack(stack).build();
+    }
+
+    @Benchmark
+    public int contextPushPop() {
+        context.stackPush(value);
+        context.stackPush(value + 1);
+        int right = context.stackPop();
+        int left = context.stackPop();
+        return left + right;
+    }
+
+    @Benchmark
+    public int contextPick() {
+        context.stackPush(value);
+        context.stackPush(value + 1);
+        int over = context.stackPick(1);
+        context.stackPop();
+        context.stackPop();
+        return over;
+    }
+
+    @Benchmark
+    public int intStackPushPop() {
+        stack.push(value);
+        stack.push(value + 1);
+        return stack.pop() + stack.pop();
+    }
+}
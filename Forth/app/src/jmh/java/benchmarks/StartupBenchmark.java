@@ -0,0 +1,49 @@
+package benchmarks;
+
+import compiler.Dictionary;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.StringWriter;
+import java.io.Writer;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cold start of interpreter till its first executed line. Every measurement is made in
+ * fresh JVM, so classes of tokens are loaded during it:
+ *     <p>generated - dictionary is built by {@code WordTable} generated from {@code Word} annotations</p>
+ *     <p>properties - dictionary is built by {@code Factory} from config.properties</p>
+ * Generated table must be a part of build(annotation processor of :processor), benchmark
+ * fails without it instead of measuring config.properties twice
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 0)
+@Measurement(iterations = 1)
+@Fork(20)
+public class StartupBenchmark {
+    @Param({"generated", "properties"})
+    public String registry;
+
+    @Benchmark
+    @SuppressWarnings("unchecked")
+    public String firstLine() throws Throwable {
+        Dictionary dictionary;
+        if(registry.equals("generated")) {
+            dictionary = Dictionary.load();
+            if(dictionary == null) {
+                throw new IllegalStateException("tokens.GeneratedWordTable wasn't generated during build");
+            }
+        } else {
+            Object factory = Interpreter.FACTORY.invokeExact();
+            Interpreter.FACTORY_CONFIGURE.invokeExact(factory, "config.properties");
+            Interpreter.FACTORY_LOAD_ALL.invokeExact(factory);
+            dictionary = new Dictionary((Map<String, Class<?>>)Interpreter.FACTORY_CLASSES.invokeExact(factory));
+        }
+        StringWriter out = new StringWriter();
+        Object forth = Interpreter.FORTH_EMBEDDED.invokeExact((Writer)out, dictionary);
+        Interpreter.FORTH_EVAL.invokeExact(forth, "1 2 + .");
+        return out.toString();
+    }
+}
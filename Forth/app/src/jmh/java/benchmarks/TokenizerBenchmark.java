@@ -0,0 +1,61 @@
+package benchmarks;
+
+import compiler.Scanner;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Splits generated line of program to words. {@code scanner} is the way {@code Forth}
+ * parses lines, {@code regexSplit} repeats the former split by regular expression
+ * with removing of whitespaces, so both can be compared on the same text
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TokenizerBenchmark {
+    private static final String[] WORDS = {"dup", "*", "1", "+", "swap", "over", "10", "0", "do", "i", ".", "loop", ";"};
+
+    @Param({"100", "10000"})
+    public int size;
+
+    private String line;
+    private Scanner scanner;
+    private final List<String> words = new ArrayList<>();
+
+    @Setup
+    public void setUp() {
+        StringBuilder builder = new StringBuilder();
+        for(int i = 0; i < size; ++i) {
+            builder.append(WORDS[i % WORDS.length]).append(i % 7 == 0 ? "   " : " ");
+        }
+        line = builder.toString();
+        scanner = new Scanner();
+    }
+
+    @Benchmark
+    public List<String> scanner() {
+        words.clear();
+        scanner.scan(line, words);
+        return words;
+    }
+
+    @Benchmark
+    public List<String> regexSplit() {
+        words.clear();
+        words.addAll(Arrays.asList(line.split("(?<=\\s)|(?=\\s)")));
+        for(int i = 0; i < words.size(); ++i) {
+            if(words.get(i).equals(" ")) {
+                words.remove(i);
+                i--;
+            }
+        }
+        return words;
+    }
+}
@@ -17,6 +17,10 @@ import java.util.Properties;
  *      Then, after finding classes by their names and loading them, each of those
  *      classes will be placed in second map for future using.
  * </p>
+ * <p>
+ *      Factory which loaded all its classes by {@link #loadAll()} isn't changed anymore,
+ *      so it can be shared by interpreters of different threads
+ * </p>
  */
 public class Factory {
     private final Map<String, String> propertiesMap = new HashMap<>();
@@ -77,6 +81,30 @@ public class Factory {
         logger.debug("Object loaded succesfully");
     }
 
+    /**
+     * Loads every configured class, so {@link #create(String)} only reads maps after that
+     * @throws ConfigException If some class wasn't found
+     */
+    public void loadAll() {
+        for(String key : propertiesMap.keySet()) {
+            if(!objectsMap.containsKey(key)) {
+                load(key);
+            }
+        }
+    }
+
+    /**
+     * @return Loaded classes by their keys
+     * @see #loadAll()
+     */
+    public Map<String, Class<?>> getClasses() {
+        Map<String, Class<?>> classes = new HashMap<>();
+        for(Map.Entry<String, Object> entry : objectsMap.entrySet()) {
+            classes.put(entry.getKey(), (Class<?>)entry.getValue());
+        }
+        return classes;
+    }
+
     /**
      * Parsing .properties file and filling map with pairs from that file
      */
@@ -1,35 +1,143 @@
 import context.Context;
 import out_formatter.OutFormatter;
+import compiler.ConstantFolder;
+import compiler.Dictionary;
+import compiler.Linker;
+import compiler.NumberParser;
+import compiler.Peephole;
+import compiler.Scanner;
+import compiler.Script;
+import compiler.StackVerifier;
+import compiler.TailCallEliminator;
+import tokens.Defining;
 import tokens.Token;
+import tokens.constructions.Call;
+import tokens.constructions.Command;
+import tokens.constructions.Exit;
+import tokens.constructions.PrintString;
+import tokens.constructions.Recurse;
+import tokens.instructions.Base;
+import trace.ExecutionTrace;
+import profile.CompileEvent;
+import profile.ExecuteEvent;
+import profile.Profiler;
+import data_types.DataSpace;
+import data_types.IntStack;
 import data_types.MutableInt;
+import exceptions.ConfigException;
+import exceptions.ImageException;
+import exceptions.ScriptException;
+import exceptions.SyntaxException;
+import jit.TieredCompiler;
+import engine.Engine;
+import engine.MethodHandleEngine;
+import engine.ProfilingEngine;
+import engine.TokenEngine;
+import image.Image;
 
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 import java.io.*;
+import java.nio.file.Path;
 import java.util.ArrayList;
-import java.util.Arrays;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
-import java.util.function.Predicate;
 
 /**
- * {@code Forth} compiler class which uses in it {@code Factory} and {@code OutFormatter}.
+ * {@code Forth} compiler class which uses in it {@code Dictionary} and {@code OutFormatter}.
  * The main concept contained in endless cycle:
  *     <p>1) take input from Console/File</p>
  *     <p>2) parse that input</p>
- *     <p>3) interpret input split to array of tokens</p>
+ *     <p>3) compile input split to array of tokens and interpret it</p>
  *     <p>4) print output(if you got it)</p>
  * Also during the running of {@code Forth} you can define your own command, they will
- * be written at definedCommands(map).
+ * be written at definedCommands(map) and compiled to code space.
  * Self-defined command prioritized in compare with basic commands
+ * <p>
+ *     Code space contains compiled definitions one after another and current line
+ *     at the end. Self-defined commands are called through return stack, so
+ *     return address is just an index in code space
+ * </p>
+ * <p>
+ *     Variables and arrays are placed in off-heap {@code DataSpace} of
+ *     {@code forth.data.size} bytes. Commands defined by variable, constant and create
+ *     are compiled after line as well as definitions
+ * </p>
+ * <p>
+ *     Compiled commands and data space can be saved by {@code save-image file} and
+ *     restored without compilation by {@code load-image file}, see {@code Image}
+ * </p>
+ * <p>
+ *     Execution can be traced by running with {@code -Dforth.trace=true}: the last
+ *     {@code forth.trace.size} executed tokens are kept in memory and written to log
+ *     in case of error. Without it, nothing is done for tracing during execution
+ * </p>
+ * <p>
+ *     Commands can be profiled by running with {@code -Dforth.profile=true}: calls, total
+ *     and self time of every command are printed by {@code .profile} and to {@code System.err}
+ *     at the end of input, compilation and execution of lines are recorded as JFR events
+ * </p>
+ * <p>
+ *     Peephole optimisation(rules are taken from {@code peephole.properties}) can be
+ *     turned off by {@code -Dforth.peephole=false}, folding of constants in definitions
+ *     by {@code -Dforth.fold=false}, elimination of tail calls by {@code -Dforth.tailcalls=false}.
+ *     Straight-line sequences of stack operations are verified by {@code StackVerifier} and check
+ *     depth of stack once, it's turned off by {@code -Dforth.verify=false} and during profiling
+ * </p>
+ * <p>
+ *     Hot self-defined commands are compiled to bytecode by {@code TieredCompiler},
+ *     {@code -Dforth.jit=interpreter|tiered|all} chooses when it's done.
+ *     Code is executed by {@code Engine} chosen by {@code -Dforth.engine=token|methodhandle}
+ * </p>
+ * <p>
+ *     In batch mode the whole input is a script: definitions can take several lines
+ *     till their {@code ;}, there are neither prompts nor stack dumps, only output of
+ *     program is written. Script is stopped by the first error, which is reported to
+ *     {@code System.err} with its line, exit code tells whether script succeeded
+ * </p>
+ * <p>
+ *     Interpreter can be embedded: {@code new Forth(writer)} creates isolated instance,
+ *     which interprets scripts given to {@code eval}/{@code run} and writes output to writer.
+ *     {@code ScriptExecutor} runs many independent scripts in parallel
+ * </p>
+ * @see ScriptExecutor
+ * @see Script
  * @see #definedCommands
+ * @see #code
  */
 public class Forth {
     private final Map<String, ArrayList<String>> definedCommands = new HashMap<>();
-    private final Factory factory = new Factory();
-    private final ArrayList<Integer> stack = new ArrayList<>();
+    private static Dictionary sharedBuiltins;
+    private Dictionary builtins;
+    private final Scanner scanner = new Scanner();
+    private final NumberParser numberParser = new NumberParser();
+    private final IntStack stack = new IntStack();
+    private final IntStack returnStack = new IntStack();
+    private final MutableInt base = new MutableInt(10);
     private final ArrayList<String> line = new ArrayList<>();
-    private final BufferedReader reader;
+    private final Map<String, Call> calls = new HashMap<>();
+    private final ArrayList<String> words = new ArrayList<>();
+    private final ArrayList<Token> code = new ArrayList<>();
+    private final Token exit = new Exit();
+    private final MutableInt programCounter = new MutableInt(0);
+    private int exitCode;
+    private final OutFormatter outFormatter;
+    private final Context context;
+    private final ConstantFolder constantFolder = Boolean.parseBoolean(System.getProperty("forth.fold", "true"))
+            ? new ConstantFolder() : null;
+    private final Peephole peephole = Boolean.parseBoolean(System.getProperty("forth.peephole", "true"))
+            ? new Peephole() : null;
+    private final boolean tailCalls = Boolean.parseBoolean(System.getProperty("forth.tailcalls", "true"));
+    private final ExecutionTrace trace = Boolean.getBoolean("forth.trace")
+            ? new ExecutionTrace(Integer.getInteger("forth.trace.size", 1024)) : null;
+    private final Profiler profiler = Boolean.getBoolean("forth.profile") ? new Profiler() : null;
+    // Verified block is a single token, so profiler would measure it instead of commands
+    private final boolean stackVerification = profiler == null
+            && Boolean.parseBoolean(System.getProperty("forth.verify", "true"));
+    private final TieredCompiler tieredCompiler = createTieredCompiler();
+    private final Engine engine;
     private static final Logger logger = LogManager.getLogger(Forth.class);
 
     /**
@@ -37,154 +145,648 @@ public class Forth {
      * @param stream Allows us to read from input
      */
     public Forth(InputStream stream) {
-        reader = new BufferedReader(new InputStreamReader(stream));
-        logger.debug("Created {} for reading from console/file", reader);
-        run();
+        this(stream, false);
     }
 
     /**
-     * Mainly, works with input/output and initialisation of needed
-     * calculations after matching a token
+     * Immediately interprets whole input, output is written to {@code System.out}
+     * @param stream Allows us to read from input
+     * @param batch True if input is a script, false for REPL
+     * @see #getExitCode
      */
-    private void run() {
-        OutFormatter outFormatter = new OutFormatter();
+    public Forth(InputStream stream, boolean batch) {
+        this(new OutFormatter(new OutputStreamWriter(System.out),
+                Integer.getInteger("forth.out.threshold", OutFormatter.DEFAULT_THRESHOLD)), null);
+        BufferedReader reader = new BufferedReader(new InputStreamReader(stream));
+        logger.debug("Created {} for reading from console/file", reader);
         try {
-            logger.debug("Trying to configure Factory");
-            factory.configure("config.properties");
+            configure();
         } catch(Exception exception) {
-            outFormatter.printError(exception);
+            if(batch) {
+                System.err.println("error: " + exception.getMessage());
+            } else {
+                outFormatter.printError(exception);
+            }
+            exitCode = 1;
             return;
         }
 
+        if(batch) {
+            runScript(reader);
+        } else {
+            run(reader);
+        }
+        if(profiler != null) {
+            System.err.print(profiler);
+        }
+    }
+
+    /**
+     * Creates interpreter for embedding, which does nothing till {@link #eval(String)}
+     * or {@link #run(Reader)}. Every interpreter has its own stacks, dictionary and
+     * output, so interpreters don't share anything and can work in different threads
+     * @param out Destination of output of program
+     * @throws ConfigException In case of broken configuration
+     */
+    public Forth(Writer out) {
+        this(out, null);
+    }
+
+    /**
+     * Creates interpreter for embedding, which takes basic commands from given dictionary.
+     * Self-defined commands stay private for each interpreter
+     * @param out Destination of output of program
+     * @param builtins Dictionary created by {@link #createBuiltins()} or null for shared one
+     * @throws ConfigException In case of broken configuration
+     */
+    public Forth(Writer out, Dictionary builtins) {
+        this(new OutFormatter(out, Integer.getInteger("forth.out.threshold", OutFormatter.DEFAULT_THRESHOLD)), builtins);
+        configure();
+    }
+
+    private Forth(OutFormatter outFormatter, Dictionary builtins) {
+        this.outFormatter = outFormatter;
+        this.builtins = builtins;
+        context = new Context.Builder()
+                .definedCommands(definedCommands)
+                .programCounter(programCounter)
+                .stack(stack)
+                .returnStack(returnStack)
+                .base(base)
+                .outFormatter(outFormatter)
+                .line(words)
+                .dataSpace(new DataSpace(Integer.getInteger("forth.data.size", DataSpace.DEFAULT_SIZE)))
+                .profiler(profiler)
+                .build();
+        engine = createEngine();
+    }
+
+    /**
+     * @return 0 if script succeeded, 1 if it was stopped by error, 2 if it couldn't be read.
+     * It's always 0 for REPL after successful configuration
+     */
+    public int getExitCode() {
+        return exitCode;
+    }
+
+    /**
+     * Interprets source as a script, definitions and stack are kept for next calls
+     * @param source Text of script
+     * @throws ScriptException In case of error, output written before it is flushed
+     * @see #run(Reader)
+     */
+    public void eval(String source) {
+        run(new StringReader(source));
+    }
+
+    /**
+     * Reads whole script and interprets it in the same way as batch mode does,
+     * output is flushed to destination at the end. Calls of one interpreter
+     * from different threads are executed one after another
+     * @param reader Source of script
+     * @throws ScriptException In case of error, output written before it is flushed
+     * @throws UncheckedIOException In case of failed reading
+     */
+    public synchronized void run(Reader reader) {
+        Script script = new Script(scanner);
+        try {
+            script.read(reader instanceof BufferedReader ? (BufferedReader)reader : new BufferedReader(reader));
+        } catch(IOException exception) {
+            throw new UncheckedIOException(exception);
+        }
+        interpret(script);
+    }
+
+    /**
+     * Interprets single line in the same way as REPL does: answer, output and
+     * stack are written to destination, error doesn't stop interpreter
+     * @param text Line of input
+     */
+    public synchronized void interpretLine(String text) {
+        line.clear();
+        scanner.scan(text, line);
+        answer();
+    }
+
+    /**
+     * Stops line which is interpreted by another thread, line fails with error
+     * at the nearest step of cycle or call. Request is dropped at the beginning of
+     * the next line, so it's ignored if line is already finished
+     */
+    public void interrupt() {
+        context.interruptedSet(true);
+    }
+
+    /**
+     * Basic commands are the same for every interpreter, so they can be
+     * loaded once and shared by all of them. Table generated from {@code Word}
+     * annotations during build is used if it's present, otherwise commands are
+     * taken from config.properties
+     * @return Perfect-hashed dictionary of commands
+     * @throws ConfigException In case of broken configuration
+     * @see Dictionary#load()
+     * @see Factory#loadAll()
+     */
+    public static Dictionary createBuiltins() {
+        Dictionary dictionary = Dictionary.load();
+        if(dictionary != null) {
+            return dictionary;
+        }
+        logger.debug("Trying to configure Factory");
+        Factory factory = new Factory();
+        try {
+            factory.configure("config.properties");
+        } catch(IOException exception) {
+            throw new ConfigException(exception.getMessage());
+        }
+        factory.loadAll();
+        return new Dictionary(factory.getClasses());
+    }
+
+    // Dictionary is built by the first interpreter of JVM, the rest of them take it ready
+    private static synchronized Dictionary sharedBuiltins() {
+        if(sharedBuiltins == null) {
+            sharedBuiltins = createBuiltins();
+        }
+        return sharedBuiltins;
+    }
+
+    /**
+     * @return Report of profiler or null if profiling is turned off
+     * @see Profiler
+     */
+    public synchronized String getProfile() {
+        return profiler != null ? profiler.toString() : null;
+    }
+
+    /**
+     * @return Copy of stack, top is the last
+     */
+    public synchronized int[] getStack() {
+        return stack.toArray();
+    }
+
+    /**
+     * Takes shared {@code Dictionary} if it isn't given and configures {@code Peephole}
+     * @throws ConfigException In case of missed configuration or classes
+     */
+    private void configure() {
+        if(builtins == null) {
+            builtins = sharedBuiltins();
+        }
+        try {
+            if(peephole != null) {
+                logger.debug("Trying to configure Peephole");
+                peephole.configure("/peephole.properties", this::resolve);
+            }
+        } catch(IOException exception) {
+            throw new ConfigException(exception.getMessage());
+        }
+    }
+
+    /**
+     * Mainly, works with input/output and initialisation of needed
+     * calculations after matching a token
+     * @param reader Console/File
+     */
+    private void run(BufferedReader reader) {
         while(true) {
             outFormatter.printReady();
             logger.debug("Trying to parse line from {}", reader);
-            if(!parse()) {
+            if(!parse(reader)) {
                 logger.debug("No more lines for parsing in {}", reader);
                 break;
             }
+            answer();
+        }
+    }
 
-            logger.debug("Preprocessing line to standard template");
-            preprocess();
-
-            try {
-                logger.debug("Starting interpretation of line");
-                interpret();
-                logger.debug("Interpretation ended successfully");
+    /**
+     * Interprets current line and prints answer, output of line and stack. Short output
+     * is printed after answer, output which reaches threshold is written during execution
+     * after '<' and answer follows it
+     */
+    private void answer() {
+        outFormatter.setMarker("< ");
+        try {
+            logger.debug("Starting interpretation of line");
+            interpret();
+            logger.debug("Interpretation ended successfully");
+            if(outFormatter.isSpilled()) {
+                outFormatter.flush();
+            }
+            outFormatter.printAnswer();
+            outFormatter.printAcceptance();
+            if(!outFormatter.isEmpty()) {
                 outFormatter.printAnswer();
-                outFormatter.printAcceptance();
-                if(!outFormatter.isEmpty()) {
-                    outFormatter.printAnswer();
-                    outFormatter.flush();
-                    logger.debug("Buffer of {} flushed", outFormatter);
-                }
-            } catch(Exception exception) {
-                outFormatter.printError(exception);
-                logger.error("Interpretation went wrong with exception", exception);
-                outFormatter.clear();
+                outFormatter.flush();
+                logger.debug("Buffer of {} flushed", outFormatter);
             }
-
-            for(int val : stack) {
-                outFormatter.append(Integer.toString(val));
+        } catch(Exception exception) {
+            // Written part of output can't be taken back, so the rest of it is finished too
+            if(outFormatter.isSpilled()) {
+                outFormatter.flush();
+            }
+            outFormatter.printError(exception);
+            logger.error("Interpretation went wrong with exception", exception);
+            if(trace != null) {
+                logger.error("Last executed tokens:\n{}", trace.toString());
+                trace.clear();
             }
-            outFormatter.flush();
-            logger.debug("Current stack printed");
+            outFormatter.clear();
+        } finally {
+            outFormatter.setMarker("");
         }
+
+        for(int i = 0; i < stack.size(); ++i) {
+            outFormatter.append(stack.get(i), base.get());
+        }
+        outFormatter.flush();
+        logger.debug("Current stack printed");
     }
 
     /**
-     * Literally writes a definition of token to a line for interpretation
-     * in case it was found in map a bit earlier
-     * @param index Shows a place in program, in which definition of token should be placed
+     * Runs script of batch mode, error is reported to {@code System.err}
+     * @param reader Console/File
      */
-    private void inline(MutableInt index) {
-        logger.debug("Trying to get definition of self-defined token in {}", definedCommands);
-        ArrayList<String> definition = definedCommands.get(line.get(index.get()));
+    private void runScript(BufferedReader reader) {
+        Script script = new Script(scanner);
+        try {
+            script.read(reader);
+        } catch(IOException exception) {
+            logger.error("Reading of script failed with exception", exception);
+            System.err.println("error: " + exception.getMessage());
+            exitCode = 2;
+            return;
+        }
 
-        logger.debug("Placing definition in current token");
-        line.addAll(index.get() + 1, definition);
-        line.remove(index.get());
+        try {
+            interpret(script);
+        } catch(ScriptException exception) {
+            System.err.println("error: " + exception.getMessage() + " (line " + exception.getLine() + ")");
+            exitCode = 1;
+        }
+    }
 
-        index.decrementAndGet();
+    /**
+     * Interprets script unit by unit, output is written only when it's flushed
+     * by threshold or at the end of script
+     * @throws ScriptException In case of the first error, which stops script
+     * @see Script
+     */
+    private void interpret(Script script) {
+        while(script.next(line)) {
+            try {
+                interpret();
+            } catch(RuntimeException exception) {
+                logger.error("Interpretation of line {} went wrong with exception", script.lineNumber(), exception);
+                if(trace != null) {
+                    logger.error("Last executed tokens:\n{}", trace.toString());
+                    trace.clear();
+                }
+                outFormatter.flush(false);
+                throw new ScriptException(exception.getMessage(), script.lineNumber(), exception);
+            }
+        }
+        outFormatter.flush(false);
+        logger.debug("Script ended successfully");
     }
 
     /**
-     * Interprets line of tokens and calls for {@code Factory} in
-     * case of matching key
+     * Resolves every word of given list once and places compiled tokens at the end
+     * of code space, so interpretation doesn't have to parse numbers and look for classes
+     * on each execution. Words after hex/decimal/binary are read in their numeral system.
+     * After that constructions are linked by {@code Linker}, constants of definitions are
+     * folded by {@code ConstantFolder}, common sequences of tokens are fused by {@code Peephole},
+     * sequences of stack operations are verified by {@code StackVerifier}
+     * and calls in tail position of definitions become jumps.
+     * Self-defined commands are compiled to their {@code Call}, definitions are finished by {@code Exit}
+     * @param source Words of line or definition of self-defined command
+     * @param name Name of defined command or null in case of line
+     * @return Address of compiled code in code space
+     * @throws exceptions.SyntaxException In case of malformed construction
      */
-    private void interpret() {
-        MutableInt i = new MutableInt(0);
-        for(; i.get() < line.size(); i.incrementAndGet()) {
-            int index = i.get();
-
-            Predicate<String> isNumeric = (str) -> {
-                try {
-                    Integer.parseInt(str);
-                    return true;
-                } catch(Exception exception) {
-                    return false;
+    private int compile(List<String> source, String name) {
+        int address = code.size();
+        CompileEvent event = profiler != null ? new CompileEvent() : null;
+        if(event != null) {
+            event.begin();
+        }
+        try {
+            int radix = base.get();
+            for(int i = 0; i < source.size(); ++i) {
+                String word = source.get(i);
+                Token token;
+                if(definedCommands.containsKey(word)) {
+                    token = call(word);
+                } else {
+                    token = numberParser.literal(word, radix);
+                    if(token == null) {
+                        token = resolve(word);
+                    }
+                }
+                if(token instanceof Base) {
+                    radix = ((Base)token).get();
+                }
+
+                if(name != null) {
+                    if(token instanceof Command || token instanceof Defining) {
+                        throw new SyntaxException("invalid syntax");
+                    }
+                    if(token instanceof Recurse) {
+                        token = calls.get(name);
+                    } else if(token == null && !word.equals(";")) {
+                        // Command can be defined after definition which calls it
+                        token = call(word);
+                    }
                 }
-            };
+                words.add(word);
+                code.add(token);
 
-            logger.debug("Checking if current token is num");
-            if(isNumeric.test(line.get(index))) {
-                stack.add(Integer.parseInt(line.get(index)));
-                logger.debug("Current token is num and it added to stack successfully");
-                continue;
+                if(token instanceof Command) {
+                    // Definition is compiled separately after execution of line
+                    while(++i < source.size()) {
+                        words.add(source.get(i));
+                        code.add(null);
+                    }
+                }
+                if(token instanceof Defining && ++i < source.size()) {
+                    // Name of defined command isn't compiled
+                    words.add(source.get(i));
+                    code.add(null);
+                }
+                if(token instanceof PrintString) {
+                    // Skipping content of string till closing '"'
+                    while(++i < source.size()) {
+                        words.add(source.get(i));
+                        code.add(null);
+                        if(source.get(i).contains("\"")) {
+                            break;
+                        }
+                    }
+                }
             }
 
-            logger.debug("Checking if current token is self-defined command");
-            if(definedCommands.containsKey(line.get(index))) {
-                inline(i);
-                logger.debug("Current token is self-defined command and definition inlined successfully");
-                continue;
+            if(name != null) {
+                words.add(";");
+                code.add(exit);
+            }
+            Linker.link(words.subList(address, words.size()), code.subList(address, code.size()), address);
+            if(name != null && constantFolder != null
+                    && constantFolder.fold(words.subList(address, words.size()), code.subList(address, code.size()))) {
+                // Folding removes tokens, so targets are outdated
+                Linker.link(words.subList(address, words.size()), code.subList(address, code.size()), address);
+            }
+            if(peephole != null) {
+                peephole.optimize(code.subList(address, code.size()));
             }
+            if(stackVerification) {
+                StackVerifier.verify(code.subList(address, code.size()), address);
+            }
+            if(name != null && tailCalls) {
+                TailCallEliminator.eliminate(code.subList(address, code.size()), address);
+            }
+        } catch(RuntimeException exception) {
+            truncate(address);
+            throw exception;
+        }
+        if(event != null) {
+            event.word = name != null ? name : "";
+            event.tokens = code.size() - address;
+            event.commit();
+        }
+        return address;
+    }
 
-            logger.debug("Token is one of basic commands");
-            logger.debug("Creating a context for executing that command");
-            Context context = new Context(definedCommands, i, stack, line);
-            Token tokenClass;
-            try {
-                logger.debug("Trying to create Token class by token {}", line.get(index));
-                tokenClass = (Token)factory.create(line.get(index));
-            } catch(Exception exception) {
-                logger.error("Token unresolved with exception",exception);
-                throw new RuntimeException("invalid syntax");
+    /**
+     * Takes {@code Token} of basic command from dictionary by one probe, the same
+     * instance is used for every appearance of command.
+     * {@code Jump} tokens keep their targets, so they are created for each appearance
+     * @param word Name of basic command
+     * @return Instance of token or null if there is no such command
+     */
+    private Token resolve(String word) {
+        Token token = builtins.get(word);
+        if(token == null) {
+            logger.debug("Token {} will be resolved during execution", word);
+        }
+        return token;
+    }
+
+    /**
+     * Compiles current line and interprets it. Code of line is removed from code space
+     * after that. In case of new definition it will be compiled right after line,
+     * so malformed definitions are reported immediately and aren't saved
+     */
+    private void interpret() {
+        returnStack.clear();
+        context.interruptedSet(false);
+        int address = compile(line, null);
+        logger.debug("Line compiled to {} tokens", code.size() - address);
+
+        ExecuteEvent event = profiler != null ? new ExecuteEvent() : null;
+        if(event != null) {
+            event.line = String.join(" ", line);
+            event.address = address;
+            event.begin();
+        }
+        RuntimeException failure = null;
+        try {
+            engine.execute(address);
+        } catch(RuntimeException exception) {
+            failure = exception;
+        } finally {
+            if(event != null) {
+                event.commit();
             }
-            logger.debug("Trying to execute command by token");
-            tokenClass.execute(context);
-            logger.debug("Token resolved successfully");
+            truncate(address);
+        }
+
+        // Variables and constants defined before error are kept
+        for(String name : context.newCommandsTake()) {
+            define(name);
+        }
+        String saved = context.savedImageTake();
+        String loaded = context.loadedImageTake();
+        if(failure != null) {
+            throw failure;
         }
+        if(saved != null) {
+            saveImage(Path.of(saved));
+        }
+        if(loaded != null) {
+            loadImage(Path.of(loaded));
+        }
+    }
+
+    /**
+     * Saves self-defined commands, base and data space. Code space contains only
+     * definitions, because line is already removed
+     * @param path Path of image file
+     * @throws ImageException In case of failed writing
+     * @see Image
+     */
+    private void saveImage(Path path) {
+        try {
+            Image.save(path, words, code, calls, definedCommands.keySet(), base.get(), context.dataSpaceGet());
+        } catch(IOException exception) {
+            throw new ImageException("image wasn't saved: " + exception.getMessage());
+        }
+        logger.debug("Image of {} tokens saved to {}", code.size(), path);
     }
 
     /**
-     * Converts line after parsing to standard format
-     * This means that there won't be any whitespaces in line
-     * except cases like writing string operator(." string")
+     * Replaces self-defined commands, base and data space by image. Nothing is
+     * compiled: tokens are created by their saved kinds, only superinstructions,
+     * verified blocks and tail calls are placed again. Stack isn't changed
+     * @param path Path of image file
+     * @throws ImageException If image can't be read or doesn't fit in interpreter,
+     * dictionary isn't changed then
+     * @see Image
      */
-    private void preprocess() {
-        boolean flag = false;
-        for(int i = 0; i < line.size(); ++i) {
-            String content = line.get(i);
-            if(content.equals(".\"") || content.equals("\"")) {
-                flag = !flag;
-                continue;
+    private void loadImage(Path path) {
+        Image image;
+        try {
+            image = Image.load(path);
+        } catch(IOException exception) {
+            throw new ImageException("image wasn't loaded: " + exception.getMessage());
+        }
+
+        String[] names = image.getNames();
+        Map<String, Call> loadedCalls = new HashMap<>();
+        for(int i = 0; i < names.length; ++i) {
+            Call call = new Call(names[i], tieredCompiler);
+            call.setAddress(image.getAddress(i));
+            loadedCalls.put(names[i], call);
+        }
+        List<Token> loadedCode = image.code(this::resolve, loadedCalls::get, exit);
+        context.dataSpaceGet().restore(image.getData());
+
+        definedCommands.clear();
+        calls.clear();
+        calls.putAll(loadedCalls);
+        truncate(0);
+        words.addAll(image.getWords());
+        code.addAll(loadedCode);
+        base.set(image.getBase());
+
+        List<Integer> addresses = new ArrayList<>();
+        for(int i = 0; i < names.length; ++i) {
+            if(image.isDefined(i)) {
+                definedCommands.put(names[i], new ArrayList<>());
             }
-            if(!flag && content.equals(" ")) {
-                line.remove(i);
-                i--;
+            if(image.getAddress(i) != Call.UNDEFINED) {
+                addresses.add(image.getAddress(i));
             }
         }
-        logger.debug("Preprocessing ended successfully");
+        if(peephole != null) {
+            peephole.optimize(code);
+        }
+        if(stackVerification) {
+            StackVerifier.verify(code, 0);
+        }
+        if(tailCalls) {
+            // Definition lasts till the next one, superseded definitions are never executed
+            Collections.sort(addresses);
+            for(int i = 0; i < addresses.size(); ++i) {
+                int end = i + 1 < addresses.size() ? addresses.get(i + 1) : code.size();
+                TailCallEliminator.eliminate(code.subList(addresses.get(i), end), addresses.get(i));
+            }
+        }
+        for(Call call : calls.values()) {
+            engine.defined(call);
+        }
+        logger.debug("Image of {} tokens loaded from {}", code.size(), path);
+    }
+
+    /**
+     * Compiles definition of command and binds its {@code Call} to it
+     * @param name Name of defined command
+     */
+    private void define(String name) {
+        Call call = call(name);
+        call.setCompiled(null);
+        try {
+            call.setAddress(compile(definedCommands.get(name), name));
+        } catch(RuntimeException exception) {
+            definedCommands.remove(name);
+            call.setAddress(Call.UNDEFINED);
+            throw exception;
+        } finally {
+            engine.defined(call);
+        }
+        logger.debug("Command {} compiled at {}", name, call.getAddress());
+    }
+
+    /**
+     * @param name Name of self-defined command
+     * @return The only {@code Call} of command
+     */
+    private Call call(String name) {
+        return calls.computeIfAbsent(name, key -> new Call(key, tieredCompiler));
+    }
+
+    /**
+     * Mode is taken from {@code forth.jit}: interpreter, tiered(default) or all.
+     * Compiled code isn't traced and profiled, so tracing and profiling turn compilation off
+     * @return Compiler of hot commands or null in case of interpretation only
+     * @throws ConfigException In case of unknown mode
+     */
+    private TieredCompiler createTieredCompiler() {
+        String mode = System.getProperty("forth.jit", "tiered");
+        switch(mode) {
+            case "interpreter":
+                return null;
+            case "tiered":
+                return trace != null || profiler != null ? null : new TieredCompiler(words, code,
+                        Integer.getInteger("forth.jit.threshold", TieredCompiler.DEFAULT_THRESHOLD));
+            case "all":
+                return trace != null || profiler != null ? null : new TieredCompiler(words, code, 1);
+            default:
+                throw new ConfigException("unknown mode of jit " + mode);
+        }
+    }
+
+    /**
+     * Engine is taken from {@code forth.engine}: token(default) or methodhandle.
+     * Tracing is done by token engine only, profiling replaces any engine by
+     * {@code ProfilingEngine}, which doesn't trace
+     * @return Engine of execution
+     * @throws ConfigException In case of unknown engine
+     */
+    private Engine createEngine() {
+        String name = System.getProperty("forth.engine", "token");
+        if(profiler != null && (name.equals("token") || name.equals("methodhandle"))) {
+            return new ProfilingEngine(words, code, context, programCounter, profiler);
+        }
+        switch(name) {
+            case "token":
+                return new TokenEngine(words, code, context, programCounter, trace);
+            case "methodhandle":
+                return trace != null ? new TokenEngine(words, code, context, programCounter, trace)
+                        : new MethodHandleEngine(words, code, context);
+            default:
+                throw new ConfigException("unknown engine " + name);
+        }
+    }
+
+    /**
+     * Removes everything placed in code space after given address
+     * @param address New end of code space
+     */
+    private void truncate(int address) {
+        words.subList(address, words.size()).clear();
+        code.subList(address, code.size()).clear();
     }
 
     /**
      * Creates line, based on current string from input and then
      * split it into tokens, which will be interpreted later
+     * @param reader Console/File
      * @return True in case of successful read. If there are no lines
      * left it will return false
      */
-    private boolean parse() {
+    private boolean parse(BufferedReader reader) {
         String line;
 
         try {
@@ -200,10 +802,9 @@ public class Forth {
             return false;
         }
 
-        String[] tokens = line.split("(?<=\\s)|(?=\\s)"); // Splitting by whitespaces
-        logger.debug("Line split by whitespaces to array of Strings");
         this.line.clear();
-        this.line.addAll(Arrays.asList(tokens));
+        scanner.scan(line, this.line);
+        logger.debug("Line split by whitespaces to {} words", this.line.size());
 
         logger.debug("Parsing went successfully");
         return true;
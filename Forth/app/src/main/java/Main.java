@@ -1,15 +1,69 @@
+import java.io.FileInputStream;
+import java.io.IOException;
 import java.io.InputStream;
 
+/**
+ * Usage: {@code Main [--batch|--repl|--serve=port] [--engine=token|methodhandle] [--jit=interpreter|tiered|all] [file]}.
+ * Script file is interpreted in batch mode by default, without file REPL reads console.
+ * {@code --serve} starts {@code ReplServer}, which serves REPL sessions over TCP.
+ * Exit code is 0 in case of success, 1 in case of error in script and 2 in case of wrong
+ * arguments or unreadable file
+ */
 public class Main {
+    private static final String USAGE =
+            "usage: forth [--batch|--repl|--serve=port] [--engine=token|methodhandle] [--jit=interpreter|tiered|all] [file]";
+
     public static void main(String[] args) {
-        try(InputStream stream = Main.class.getResourceAsStream("program.txt")) {
-            if(stream == null) {
-                System.out.println("no such a file");
-                return;
+        Boolean batch = null;
+        String path = null;
+        Integer port = null;
+        for(String arg : args) {
+            if(arg.equals("--batch")) {
+                batch = true;
+            } else if(arg.equals("--repl")) {
+                batch = false;
+            } else if(arg.startsWith("--serve=")) {
+                try {
+                    port = Integer.parseInt(arg.substring("--serve=".length()));
+                } catch(NumberFormatException exception) {
+                    System.err.println(USAGE);
+                    System.exit(2);
+                }
+            } else if(arg.startsWith("--engine=")) {
+                System.setProperty("forth.engine", arg.substring("--engine=".length()));
+            } else if(arg.startsWith("--jit=")) {
+                System.setProperty("forth.jit", arg.substring("--jit=".length()));
+            } else if(!arg.startsWith("--") && path == null) {
+                path = arg;
+            } else {
+                System.err.println(USAGE);
+                System.exit(2);
+            }
+        }
+
+        int exitCode;
+        if(port != null) {
+            try(ReplServer server = new ReplServer(port)) {
+                System.out.println("listening on port " + server.getPort());
+                server.run();
+                exitCode = 0;
+            } catch(Exception exception) {
+                System.err.println("error: " + exception.getMessage());
+                exitCode = 2;
             }
-            Forth forth = new Forth(System.in);
+            System.exit(exitCode);
+        }
+
+        try(InputStream stream = path == null ? System.in : new FileInputStream(path)) {
+            Forth forth = new Forth(stream, batch != null ? batch : path != null);
+            exitCode = forth.getExitCode();
+        } catch(IOException exception) {
+            System.err.println("error: " + exception.getMessage());
+            exitCode = 2;
         } catch(Exception exception) {
-            System.out.println(exception.getMessage());
+            System.err.println("error: " + exception.getMessage());
+            exitCode = 1;
         }
+        System.exit(exitCode);
     }
 }
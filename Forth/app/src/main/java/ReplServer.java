@@ -0,0 +1,369 @@
+import compiler.Dictionary;
+import exceptions.InterruptException;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.Writer;
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayDeque;
+import java.util.Iterator;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@code ReplServer} serves REPL over TCP, each connection is a session with its
+ * own {@code Forth}. Basic commands are loaded once and shared by every session,
+ * self-defined commands, stacks and output are private.
+ * <p>
+ *     Connections are served by single selector thread with non-blocking reads and
+ *     writes. Lines are interpreted by worker pool, session has at most one line in
+ *     work, so its lines are interpreted in order and long line of one session doesn't
+ *     stop the others. Answers are the same as in console REPL, prompt included
+ * </p>
+ * <p>
+ *     Input of session isn't read while it has waiting lines or answers which aren't
+ *     written yet, so client which doesn't read answers is held by its own socket.
+ *     Line which runs longer than time limit or prints more than output limit is interrupted
+ *     and answered by error, closing of server interrupts every running line
+ * </p>
+ * @see Forth#interpretLine(String)
+ */
+public class ReplServer implements Runnable, AutoCloseable {
+    public static final int MAX_LINE = 64 * 1024;
+    public static final int BACKLOG = 1024;
+    public static final long TIME_LIMIT = 10_000; // milliseconds
+    public static final int OUTPUT_LIMIT = 1 << 20; // chars of line's answer
+
+    private static final byte[] PROMPT = "> ".getBytes(StandardCharsets.UTF_8);
+    private static final byte[] TOO_LONG = "error: line is too long\n".getBytes(StandardCharsets.UTF_8);
+
+    private final Selector selector;
+    private final ServerSocketChannel server;
+    private final ExecutorService workers;
+    private final ScheduledExecutorService timer = Executors.newSingleThreadScheduledExecutor(task -> {
+        Thread thread = new Thread(task, "repl-timer");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private final long timeLimit;
+    private final int outputLimit;
+    private final Dictionary builtins = Forth.createBuiltins();
+    private final Queue<Session> answered = new ConcurrentLinkedQueue<>();
+    private final ByteBuffer input = ByteBuffer.allocateDirect(8192);
+    private static final Logger logger = LogManager.getLogger(ReplServer.class);
+
+    // Connection and its interpreter
+    private static final class Session {
+        private final SocketChannel channel;
+        private final Output out;
+        private final Forth forth;
+        private final ByteArrayOutputStream partial = new ByteArrayOutputStream();
+        private final Queue<String> lines = new ArrayDeque<>();
+        private final Queue<ByteBuffer> answers = new ArrayDeque<>();
+        private ByteBuffer answer; // written by worker, taken by selector thread
+        private boolean busy;
+        private boolean closing;
+        private long submitted; // count of lines given to worker
+        private long running; // number of line in work or 0, guarded by session
+
+        private Session(SocketChannel channel, Dictionary builtins, int outputLimit) {
+            this.channel = channel;
+            out = new Output(outputLimit);
+            forth = new Forth(out, builtins);
+        }
+    }
+
+    // Answer of line in work, it stops line which prints too much
+    private static final class Output extends Writer {
+        private final StringBuilder text = new StringBuilder();
+        private final int limit;
+        private boolean exceeded; // the rest of line's answer is written without limit
+
+        private Output(int limit) {
+            this.limit = limit;
+        }
+
+        @Override
+        public void write(char[] chars, int offset, int length) {
+            if(!exceeded && text.length() + length > limit) {
+                exceeded = true;
+                text.append(chars, offset, limit - text.length());
+                throw new InterruptException("output limit exceeded");
+            }
+            text.append(chars, offset, length);
+        }
+
+        @Override
+        public void flush() { }
+
+        @Override
+        public void close() { }
+
+        // Gives answer and starts the next one
+        private String take() {
+            String answer = text.toString();
+            text.setLength(0);
+            exceeded = false;
+            return answer;
+        }
+    }
+
+    /**
+     * @param address Address of server, port 0 means any free port
+     * @param workers Count of threads which interpret lines
+     * @param timeLimit Milliseconds given to each line, longer line is interrupted
+     * @param outputLimit Count of chars which line can print, line which prints more is interrupted
+     */
+    public ReplServer(InetSocketAddress address, int workers, long timeLimit, int outputLimit) throws IOException {
+        this.timeLimit = timeLimit;
+        this.outputLimit = outputLimit;
+        selector = Selector.open();
+        server = ServerSocketChannel.open();
+        server.bind(address, BACKLOG);
+        server.configureBlocking(false);
+        server.register(selector, SelectionKey.OP_ACCEPT);
+        this.workers = new ForkJoinPool(workers);
+        logger.info("Server listens to {}", server.getLocalAddress());
+    }
+
+    public ReplServer(InetSocketAddress address, int workers, long timeLimit) throws IOException {
+        this(address, workers, timeLimit, OUTPUT_LIMIT);
+    }
+
+    public ReplServer(InetSocketAddress address, int workers) throws IOException {
+        this(address, workers, TIME_LIMIT, OUTPUT_LIMIT);
+    }
+
+    public ReplServer(int port) throws IOException {
+        this(new InetSocketAddress(port), Runtime.getRuntime().availableProcessors());
+    }
+
+    public int getPort() throws IOException {
+        return ((InetSocketAddress)server.getLocalAddress()).getPort();
+    }
+
+    /**
+     * Serves connections till {@link #close()}
+     */
+    public void run() {
+        try {
+            while(server.isOpen()) {
+                selector.select();
+                Session session;
+                while((session = answered.poll()) != null) {
+                    finish(session);
+                }
+
+                Iterator<SelectionKey> keys = selector.selectedKeys().iterator();
+                while(keys.hasNext()) {
+                    SelectionKey key = keys.next();
+                    keys.remove();
+                    try {
+                        if(key.isAcceptable()) {
+                            accept();
+                        } else {
+                            if(key.isReadable()) {
+                                read(key);
+                            }
+                            if(key.isValid() && key.isWritable()) {
+                                write(key);
+                            }
+                        }
+                    } catch(IOException exception) {
+                        logger.debug("Connection failed with exception", exception);
+                        close(key);
+                    }
+                }
+            }
+        } catch(IOException exception) {
+            logger.error("Server failed with exception", exception);
+        } finally {
+            for(SelectionKey key : selector.keys()) {
+                if(key.attachment() != null) {
+                    interrupt((Session)key.attachment(), 0);
+                }
+                close(key);
+            }
+            timer.shutdownNow();
+            try {
+                selector.close();
+            } catch(IOException exception) {
+                logger.debug("Closing of selector failed with exception", exception);
+            }
+        }
+        logger.info("Server stopped");
+    }
+
+    /**
+     * Stops accepting of connections, {@link #run()} closes sessions and returns
+     */
+    public void close() throws IOException {
+        if(!server.isOpen()) {
+            return;
+        }
+        server.close();
+        workers.shutdown();
+        selector.wakeup();
+    }
+
+    // Accepts every waiting connection
+    private void accept() throws IOException {
+        SocketChannel channel;
+        while((channel = server.accept()) != null) {
+            channel.configureBlocking(false);
+            Session session = new Session(channel, builtins, outputLimit);
+            session.answers.add(ByteBuffer.wrap(PROMPT));
+            channel.register(selector, SelectionKey.OP_WRITE, session);
+            logger.debug("Session {} opened", channel.getRemoteAddress());
+        }
+    }
+
+    // Splits input into lines, the first line is given to worker if session is free
+    private void read(SelectionKey key) throws IOException {
+        Session session = (Session)key.attachment();
+        input.clear();
+        int count = session.channel.read(input);
+        if(count < 0) {
+            if(session.partial.size() > 0) {
+                session.lines.add(session.partial.toString(StandardCharsets.UTF_8));
+                submit(session);
+            }
+            session.closing = true;
+            interest(key, session);
+            closeIfDone(key, session);
+            return;
+        }
+
+        input.flip();
+        while(input.hasRemaining()) {
+            byte symbol = input.get();
+            if(symbol == '\n') {
+                session.lines.add(session.partial.toString(StandardCharsets.UTF_8));
+                session.partial.reset();
+            } else if(symbol != '\r') {
+                session.partial.write(symbol);
+            }
+        }
+        if(session.partial.size() > MAX_LINE) {
+            session.answers.add(ByteBuffer.wrap(TOO_LONG));
+            session.closing = true;
+            session.lines.clear();
+            key.interestOps(SelectionKey.OP_WRITE);
+            return;
+        }
+        submit(session);
+        interest(key, session);
+    }
+
+    private void write(SelectionKey key) throws IOException {
+        Session session = (Session)key.attachment();
+        while(!session.answers.isEmpty()) {
+            ByteBuffer answer = session.answers.peek();
+            session.channel.write(answer);
+            if(answer.hasRemaining()) {
+                return; // Socket is full, the rest is written when it's writable again
+            }
+            session.answers.poll();
+        }
+        interest(key, session);
+        closeIfDone(key, session);
+    }
+
+    private void submit(Session session) {
+        if(session.busy || session.lines.isEmpty()) {
+            return;
+        }
+        session.busy = true;
+        String line = session.lines.poll();
+        if(workers.isShutdown()) {
+            return; // Server is stopped
+        }
+        long number = ++session.submitted;
+        workers.execute(() -> {
+            synchronized(session) {
+                session.running = number;
+            }
+            Future<?> timeout = timer.schedule(() -> interrupt(session, number), timeLimit, TimeUnit.MILLISECONDS);
+            String text;
+            try {
+                session.forth.interpretLine(line);
+                text = session.out.take();
+            } catch(Throwable failure) {
+                // Session keeps answering even if its interpreter failed as a whole
+                logger.error("Line of session failed with exception", failure);
+                session.out.take();
+                text = "error: " + failure.getMessage() + "\n";
+            } finally {
+                synchronized(session) {
+                    session.running = 0;
+                }
+                timeout.cancel(false);
+            }
+            session.answer = StandardCharsets.UTF_8.encode(text + "> ");
+            answered.add(session);
+            selector.wakeup();
+        });
+    }
+
+    // Answer of worker is written to connection, the next line is given to worker
+    private void finish(Session session) {
+        SelectionKey key = session.channel.keyFor(selector);
+        session.busy = false;
+        if(key == null || !key.isValid()) {
+            return;
+        }
+        session.answers.add(session.answer);
+        session.answer = null;
+        submit(session);
+        interest(key, session);
+    }
+
+    // Input is read only when session has nothing in queues, answers are written while they are
+    private void interest(SelectionKey key, Session session) {
+        int ops = session.answers.isEmpty() ? 0 : SelectionKey.OP_WRITE;
+        if(!session.closing && session.lines.isEmpty() && session.answers.isEmpty()) {
+            ops |= SelectionKey.OP_READ;
+        }
+        key.interestOps(ops);
+    }
+
+    /**
+     * Interrupts line of session if it's still in work, so late timer doesn't touch the next line
+     * @param number Number of line or 0 for any line
+     */
+    private void interrupt(Session session, long number) {
+        synchronized(session) {
+            if(session.running != 0 && (number == 0 || session.running == number)) {
+                session.forth.interrupt();
+            }
+        }
+    }
+
+    private void closeIfDone(SelectionKey key, Session session) {
+        if(session.closing && !session.busy && session.lines.isEmpty() && session.answers.isEmpty()) {
+            close(key);
+        }
+    }
+
+    private void close(SelectionKey key) {
+        key.cancel();
+        try {
+            key.channel().close();
+        } catch(IOException exception) {
+            logger.debug("Closing of connection failed with exception", exception);
+        }
+    }
+}
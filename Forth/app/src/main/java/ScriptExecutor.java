@@ -0,0 +1,115 @@
+import exceptions.ScriptException;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import java.io.StringWriter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+
+/**
+ * {@code ScriptExecutor} runs independent scripts concurrently on {@code ForkJoinPool}.
+ * Every script gets its own {@code Forth}, so scripts share neither stacks nor
+ * dictionary nor output. Output, error and time of each script are collected
+ * to {@code Result}
+ * @see Forth#eval(String)
+ */
+public class ScriptExecutor implements AutoCloseable {
+    private final ForkJoinPool pool;
+    private static final Logger logger = LogManager.getLogger(ScriptExecutor.class);
+
+    /**
+     * Output and timing of single script
+     */
+    public static class Result {
+        private final String output;
+        private final String error;
+        private final long nanos;
+
+        Result(String output, String error, long nanos) {
+            this.output = output;
+            this.error = error;
+            this.nanos = nanos;
+        }
+
+        public String getOutput() {
+            return output;
+        }
+
+        /**
+         * @return Message of error which stopped script or null in case of success
+         */
+        public String getError() {
+            return error;
+        }
+
+        /**
+         * @return Time of creation of interpreter and interpretation of script
+         */
+        public long getNanos() {
+            return nanos;
+        }
+    }
+
+    public ScriptExecutor() {
+        this(Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * @param parallelism Count of scripts executed at the same time
+     */
+    public ScriptExecutor(int parallelism) {
+        pool = new ForkJoinPool(parallelism);
+        logger.debug("ScriptExecutor created with parallelism {}", parallelism);
+    }
+
+    /**
+     * Executes every script and waits for all of them
+     * @param scripts Sources of scripts
+     * @return Results in the same order as scripts
+     * @throws IllegalStateException If waiting was interrupted
+     */
+    public List<Result> execute(List<String> scripts) {
+        List<Callable<Result>> tasks = new ArrayList<>(scripts.size());
+        for(String script : scripts) {
+            tasks.add(() -> execute(script));
+        }
+
+        List<Result> results = new ArrayList<>(scripts.size());
+        try {
+            for(Future<Result> future : pool.invokeAll(tasks)) {
+                results.add(future.get());
+            }
+        } catch(InterruptedException exception) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("execution of scripts was interrupted");
+        } catch(ExecutionException exception) {
+            throw new IllegalStateException("execution of script failed", exception.getCause());
+        }
+        return results;
+    }
+
+    public void close() {
+        pool.shutdown();
+    }
+
+    private static Result execute(String script) {
+        long start = System.nanoTime();
+        StringWriter out = new StringWriter();
+        String error = null;
+        try {
+            Forth forth = new Forth(out);
+            forth.eval(script);
+        } catch(ScriptException exception) {
+            logger.debug("Script failed with exception", exception);
+            error = exception.getMessage() + " (line " + exception.getLine() + ")";
+        } catch(RuntimeException exception) {
+            logger.debug("Interpreter failed with exception", exception);
+            error = exception.getMessage();
+        }
+        return new Result(out.toString(), error, System.nanoTime() - start);
+    }
+}
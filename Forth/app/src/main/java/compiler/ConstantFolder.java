@@ -0,0 +1,135 @@
+package compiler;
+
+import context.Context;
+import data_types.DataSpace;
+import out_formatter.OutFormatter;
+import tokens.Token;
+import tokens.constructions.Command;
+import tokens.constructions.Else;
+import tokens.constructions.If;
+import tokens.constructions.Then;
+import tokens.instructions.Literal;
+import tokens.logical_operations.Equality;
+import tokens.logical_operations.Great;
+import tokens.logical_operations.Less;
+import tokens.operations.*;
+
+import java.io.Writer;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * {@code ConstantFolder} computes parts of definition which don't depend on stack
+ * once during compilation:
+ *     <p>1) operation after two numbers is replaced by its result(60 60 * - 3600)</p>
+ *     <p>2) if after number keeps only branch which would be executed, if, else, then ;
+ *     and the number itself are removed</p>
+ * Operations are executed by the same tokens as during interpretation, so results are
+ * exactly the same. Operations which fail(division by zero) aren't folded and fail at runtime.
+ * <p>
+ *     Words and tokens are removed together, so folding must be done before linking
+ * </p>
+ * @see Linker
+ */
+public class ConstantFolder {
+    private static final Set<Class<?>> operations = Set.of(Plus.class, Minus.class, Multiplication.class,
+            Division.class, Mod.class, Equality.class, Less.class, Great.class);
+    // Operations use only stack, so scratch context gets empty memory and output
+    private final Context scratch = new Context.Builder()
+            .dataSpace(new DataSpace(0))
+            .outFormatter(new OutFormatter(Writer.nullWriter()))
+            .build();
+
+    /**
+     * Folds constants of definition in place
+     * @param words Words of definition
+     * @param code Tokens compiled from words(aligned with them)
+     * @return True if anything was folded
+     */
+    public boolean fold(List<String> words, List<Token> code) {
+        boolean folded = false;
+        for(int i = 0; i < code.size(); ++i) {
+            Token token = code.get(i);
+            if(token instanceof Command) {
+                break;
+            }
+
+            if(i >= 2 && token != null && operations.contains(token.getClass())
+                    && code.get(i - 1) instanceof Literal && code.get(i - 2) instanceof Literal) {
+                Literal result = evaluate((Literal)code.get(i - 2), (Literal)code.get(i - 1), token);
+                if(result != null) {
+                    remove(words, code, i - 1, i + 1);
+                    words.set(i - 2, Integer.toString(result.get()));
+                    code.set(i - 2, result);
+                    i -= 2;
+                    folded = true;
+                }
+            } else if(i >= 1 && token instanceof If && code.get(i - 1) instanceof Literal) {
+                if(eliminate(words, code, i, ((Literal)code.get(i - 1)).get() != 0)) {
+                    // Kept branch is placed at i - 1 now and it's folded further
+                    i -= 2;
+                    folded = true;
+                }
+            }
+        }
+        return folded;
+    }
+
+    private Literal evaluate(Literal leftOperand, Literal rightOperand, Token operation) {
+        scratch.stackClear();
+        scratch.stackPush(leftOperand.get());
+        scratch.stackPush(rightOperand.get());
+        try {
+            operation.execute(scratch);
+        } catch(RuntimeException exception) {
+            return null;
+        }
+        return scratch.stackSize() == 1 ? new Literal(scratch.stackPop()) : null;
+    }
+
+    /**
+     * Removes branch of if which is never executed
+     * @param index Index of if, number is right before it
+     * @param taken Whether if branch is executed
+     * @return False in case of malformed construction, nothing is removed then
+     */
+    private static boolean eliminate(List<String> words, List<Token> code, int index, boolean taken) {
+        int elseIndex = -1;
+        int thenIndex = -1;
+        int depth = 0;
+        for(int i = index + 1; i < code.size() && thenIndex < 0; ++i) {
+            Token token = code.get(i);
+            if(token instanceof Command) {
+                return false;
+            }
+            if(token instanceof If) {
+                ++depth;
+            } else if(token instanceof Then) {
+                if(depth-- == 0) {
+                    thenIndex = i;
+                }
+            } else if(token instanceof Else && depth == 0) {
+                elseIndex = i;
+            }
+        }
+        if(thenIndex < 0 || thenIndex + 1 >= words.size() || !words.get(thenIndex + 1).equals(";")) {
+            return false;
+        }
+
+        remove(words, code, thenIndex, thenIndex + 2);
+        if(taken) {
+            if(elseIndex >= 0) {
+                remove(words, code, elseIndex, thenIndex);
+            }
+            remove(words, code, index - 1, index + 1);
+        } else {
+            remove(words, code, index - 1, elseIndex >= 0 ? elseIndex + 1 : thenIndex);
+        }
+        return true;
+    }
+
+    private static void remove(List<String> words, List<Token> code, int from, int to) {
+        words.subList(from, to).clear();
+        code.subList(from, to).clear();
+    }
+}
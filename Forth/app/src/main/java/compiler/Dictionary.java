@@ -0,0 +1,207 @@
+package compiler;
+
+import exceptions.ConfigException;
+import tokens.Jump;
+import tokens.Token;
+import tokens.WordTable;
+
+import java.lang.reflect.Constructor;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.ServiceConfigurationError;
+import java.util.ServiceLoader;
+
+/**
+ * {@code Dictionary} is immutable table of basic commands built once by their classes.
+ * Words are placed by perfect hash(hash and displace): word's hash chooses bucket,
+ * displacement of bucket chooses slot, so lookup is one probe of table and one
+ * comparison of words without collisions. Hash of word is taken from {@code String},
+ * which caches it.
+ * <p>
+ *     Tokens are created during building: commands are singletons shared by every
+ *     interpreter, {@code Jump} tokens keep their targets, so each lookup of them
+ *     creates new instance by {@code WordTable}. Self-defined commands aren't placed
+ *     here, interpreter keeps them in its own table which is checked before
+ * </p>
+ * @see WordTable
+ */
+public class Dictionary {
+    private static final int GOLDEN = 0x9e3779b9;
+    private static final int MAX_DISPLACEMENT = 1 << 20;
+
+    private final WordTable table;
+    private final String[] words;
+    private final Token[] tokens;
+    private final int[] indices;
+    private final int[] displacements;
+    private final int mask;
+    private final int count;
+
+    // Table of classes from config.properties, tokens are created by reflection
+    private static class ClassTable implements WordTable {
+        private final String[] words;
+        private final Constructor<?>[] constructors;
+
+        private ClassTable(Map<String, Class<?>> classes) {
+            words = classes.keySet().toArray(new String[0]);
+            constructors = new Constructor<?>[words.length];
+            for(int i = 0; i < words.length; ++i) {
+                Class<?> type = classes.get(words[i]);
+                if(!Token.class.isAssignableFrom(type)) {
+                    throw new ConfigException("class by key " + words[i] + " isn't a token");
+                }
+                try {
+                    constructors[i] = type.getConstructor();
+                } catch(NoSuchMethodException exception) {
+                    throw new ConfigException("instantiation of " + words[i] + " failed");
+                }
+            }
+        }
+
+        public String[] words() {
+            return words.clone();
+        }
+
+        public Token create(int index) {
+            try {
+                return (Token)constructors[index].newInstance();
+            } catch(ReflectiveOperationException exception) {
+                throw new ConfigException("instantiation of " + words[index] + " failed");
+            }
+        }
+    }
+
+    /**
+     * @param classes Words of commands and classes of their tokens
+     * @throws ConfigException If class isn't token or can't be instantiated
+     */
+    public Dictionary(Map<String, Class<?>> classes) {
+        this(new ClassTable(classes));
+    }
+
+    /**
+     * @param table Words of commands and their tokens
+     * @throws ConfigException If word is repeated
+     */
+    public Dictionary(WordTable table) {
+        this.table = table;
+        String[] tableWords = table.words();
+        int size = Integer.highestOneBit(Math.max(1, tableWords.length) * 2 - 1) << 1;
+        mask = size - 1;
+        count = tableWords.length;
+        words = new String[size];
+        tokens = new Token[size];
+        indices = new int[size];
+        displacements = new int[size];
+
+        List<List<Integer>> buckets = new ArrayList<>();
+        for(int i = 0; i < size; ++i) {
+            buckets.add(new ArrayList<>());
+        }
+        int largest = 0;
+        for(int i = 0; i < tableWords.length; ++i) {
+            List<Integer> bucket = buckets.get(bucket(tableWords[i].hashCode()));
+            bucket.add(i);
+            largest = Math.max(largest, bucket.size());
+        }
+        // The largest buckets are placed first, while table is almost empty
+        for(int bucketSize = largest; bucketSize > 0; --bucketSize) {
+            for(List<Integer> bucket : buckets) {
+                if(bucket.size() == bucketSize) {
+                    place(bucket, tableWords);
+                }
+            }
+        }
+    }
+
+    /**
+     * Builds dictionary by {@code WordTable} generated during build and registered
+     * in META-INF/services/tokens.WordTable
+     * @return Dictionary of generated table or null if there is no table
+     * @throws ConfigException If table can't be loaded
+     */
+    public static Dictionary load() {
+        try {
+            Iterator<WordTable> tables = ServiceLoader.load(WordTable.class, Dictionary.class.getClassLoader()).iterator();
+            return tables.hasNext() ? new Dictionary(tables.next()) : null;
+        } catch(ServiceConfigurationError error) {
+            throw new ConfigException(error.getMessage());
+        }
+    }
+
+    /**
+     * @param word Word of program
+     * @return Token of basic command or null if there is no such command
+     */
+    public Token get(String word) {
+        int hash = word.hashCode();
+        int slot = slot(hash, displacements[bucket(hash)]);
+        if(!word.equals(words[slot])) {
+            return null;
+        }
+        return tokens[slot] != null ? tokens[slot] : table.create(indices[slot]);
+    }
+
+    public boolean contains(String word) {
+        int hash = word.hashCode();
+        return word.equals(words[slot(hash, displacements[bucket(hash)])]);
+    }
+
+    public int size() {
+        return count;
+    }
+
+    // Finds displacement which places every word of bucket to free slot
+    private void place(List<Integer> bucket, String[] tableWords) {
+        int[] slots = new int[bucket.size()];
+        for(int displacement = 0; displacement < MAX_DISPLACEMENT; ++displacement) {
+            if(fits(bucket, tableWords, displacement, slots)) {
+                displacements[bucket(tableWords[bucket.get(0)].hashCode())] = displacement;
+                for(int i = 0; i < slots.length; ++i) {
+                    put(slots[i], bucket.get(i), tableWords[bucket.get(i)]);
+                }
+                return;
+            }
+        }
+        throw new ConfigException("perfect hash for " + tableWords[bucket.get(0)] + " wasn't found");
+    }
+
+    private boolean fits(List<Integer> bucket, String[] tableWords, int displacement, int[] slots) {
+        for(int i = 0; i < slots.length; ++i) {
+            String word = tableWords[bucket.get(i)];
+            slots[i] = slot(word.hashCode(), displacement);
+            if(words[slots[i]] != null) {
+                return false;
+            }
+            for(int j = 0; j < i; ++j) {
+                if(slots[j] == slots[i]) {
+                    if(tableWords[bucket.get(j)].equals(word)) {
+                        throw new ConfigException("word " + word + " is repeated");
+                    }
+                    return false;
+                }
+            }
+        }
+        return true;
+    }
+
+    private void put(int slot, int index, String word) {
+        Token token = table.create(index);
+        if(!(token instanceof Jump)) {
+            tokens[slot] = token;
+        }
+        indices[slot] = index;
+        words[slot] = word;
+    }
+
+    private int bucket(int hash) {
+        return (hash ^ (hash >>> 16)) & mask;
+    }
+
+    private int slot(int hash, int displacement) {
+        int mixed = (hash + displacement * GOLDEN) * GOLDEN;
+        return (mixed ^ (mixed >>> 15)) & mask;
+    }
+}
@@ -0,0 +1,103 @@
+package compiler;
+
+import exceptions.SyntaxException;
+import tokens.Jump;
+import tokens.Token;
+import tokens.constructions.*;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+
+/**
+ * {@code Linker} matches constructions of compiled line or definition and
+ * gives targets to {@code Jump} tokens, so none of them searches for its
+ * partner during execution. Targets are:
+ *     <p>if - else(or token after then ;)</p>
+ *     <p>else - token after then ;</p>
+ *     <p>do, ?do, leave - token after loop ;(+loop ;)</p>
+ * Malformed constructions are reported here instead of being found mid-execution
+ */
+public class Linker {
+    private Linker() { }
+
+    /**
+     * Links constructions of code placed at the beginning of code space
+     * @see #link(List, List, int)
+     */
+    public static void link(List<String> words, List<Token> code) {
+        link(words, code, 0);
+    }
+
+    /**
+     * Links constructions of code
+     * @param words Words of line or definition
+     * @param code Tokens compiled from words(aligned with them)
+     * @param address Index of first token in code space, it's added to every target
+     * @throws SyntaxException In case of unmatched or unclosed construction
+     */
+    public static void link(List<String> words, List<Token> code, int address) {
+        Deque<Integer> opened = new ArrayDeque<>();
+        List<int[]> leaves = new ArrayList<>(); // pairs [index of leave] [index of its do]
+
+        for(int i = 0; i < code.size(); ++i) {
+            Token token = code.get(i);
+            if(token instanceof Command) {
+                break; // Rest of line is a definition, it's compiled on its own
+            }
+
+            if(token instanceof If || token instanceof Do) {
+                opened.push(i);
+            } else if(token instanceof Else) {
+                int ifIndex = close(opened, code, If.class);
+                ((Jump)code.get(ifIndex)).setTarget(address + i);
+                opened.push(i);
+            } else if(token instanceof Then) {
+                checkEnding(words, code, i);
+                if(opened.isEmpty() || code.get(opened.peek()) instanceof Do) {
+                    throw new SyntaxException("invalid syntax");
+                }
+                ((Jump)code.get(opened.pop())).setTarget(address + i + 1);
+            } else if(token instanceof Loop || token instanceof PlusLoop) {
+                checkEnding(words, code, i);
+                int doIndex = close(opened, code, Do.class);
+                ((Jump)code.get(doIndex)).setTarget(address + i + 1);
+                for(int[] leave : leaves) {
+                    if(leave[1] == doIndex) {
+                        ((Jump)code.get(leave[0])).setTarget(address + i + 1);
+                    }
+                }
+            } else if(token instanceof Leave) {
+                leaves.add(new int[] { i, innermostDo(opened, code) });
+            }
+        }
+
+        if(!opened.isEmpty()) {
+            throw new SyntaxException("invalid syntax");
+        }
+    }
+
+    private static int close(Deque<Integer> opened, List<Token> code, Class<? extends Token> expected) {
+        if(opened.isEmpty() || !expected.isInstance(code.get(opened.peek()))) {
+            throw new SyntaxException("invalid syntax");
+        }
+        return opened.pop();
+    }
+
+    private static int innermostDo(Deque<Integer> opened, List<Token> code) {
+        for(int index : opened) {
+            if(code.get(index) instanceof Do) {
+                return index;
+            }
+        }
+        throw new SyntaxException("invalid syntax");
+    }
+
+    // then and loop must be followed by their own ';', Exit which finishes definition can't take its place
+    private static void checkEnding(List<String> words, List<Token> code, int index) {
+        if(index + 1 >= words.size() || !words.get(index + 1).equals(";") || code.get(index + 1) instanceof Exit) {
+            throw new SyntaxException("invalid syntax");
+        }
+    }
+}
@@ -0,0 +1,97 @@
+package compiler;
+
+import tokens.instructions.Literal;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * {@code NumberParser} recognizes numeric literals without exceptions:
+ * every word is checked character by character only once, after that
+ * result is taken from cache. Supported forms are
+ *     <p>[+|-]digits - number in current base</p>
+ *     <p>#[-]digits, $[-]digits, %[-]digits - decimal, hexadecimal and binary number</p>
+ *     <p>'c' - code of character</p>
+ * Numbers which don't fit in int aren't literals
+ */
+public class NumberParser {
+    public static final long NOT_A_NUMBER = Long.MIN_VALUE;
+    private static final int CACHE_LIMIT = 1 << 16;
+
+    private final Map<String, Literal> cache = new HashMap<>();
+    private int cachedBase = 10;
+
+    /**
+     * Returns literal token for word, words which aren't numbers are cached too
+     * @param word Word of program
+     * @param base Current numeral system
+     * @return Literal with value of word or null if word isn't a number
+     */
+    public Literal literal(String word, int base) {
+        if(base != cachedBase || cache.size() >= CACHE_LIMIT) {
+            cache.clear();
+            cachedBase = base;
+        }
+
+        Literal literal = cache.get(word);
+        if(literal != null || cache.containsKey(word)) {
+            return literal;
+        }
+
+        long value = parse(word, base);
+        literal = value == NOT_A_NUMBER ? null : new Literal((int)value);
+        cache.put(word, literal);
+        return literal;
+    }
+
+    /**
+     * Parses word as a number
+     * @param word Word of program
+     * @param base Numeral system for words without prefix
+     * @return Value of number or {@link #NOT_A_NUMBER}
+     */
+    public static long parse(CharSequence word, int base) {
+        int length = word.length();
+        if(length == 3 && word.charAt(0) == '\'' && word.charAt(2) == '\'') {
+            return word.charAt(1);
+        }
+
+        int i = 0;
+        if(length > 0) {
+            switch(word.charAt(0)) {
+                case '#': base = 10; i++; break;
+                case '$': base = 16; i++; break;
+                case '%': base = 2; i++; break;
+                default: break;
+            }
+        }
+
+        boolean negative = false;
+        if(i < length && (word.charAt(i) == '-' || (i == 0 && word.charAt(i) == '+'))) {
+            negative = word.charAt(i) == '-';
+            i++;
+        }
+
+        if(i == length) {
+            return NOT_A_NUMBER;
+        }
+
+        long value = 0;
+        for(; i < length; ++i) {
+            int digit = Character.digit(word.charAt(i), base);
+            if(digit < 0) {
+                return NOT_A_NUMBER;
+            }
+            value = value * base + digit;
+            if(value > (long)Integer.MAX_VALUE + 1) {
+                return NOT_A_NUMBER;
+            }
+        }
+
+        value = negative ? -value : value;
+        if(value > Integer.MAX_VALUE) {
+            return NOT_A_NUMBER;
+        }
+        return value;
+    }
+}
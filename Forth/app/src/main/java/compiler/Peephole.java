@@ -0,0 +1,137 @@
+package compiler;
+
+import exceptions.ConfigException;
+import exceptions.InstantiationException;
+import tokens.Token;
+import tokens.instructions.Literal;
+import tokens.superinstructions.Superinstruction;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Properties;
+import java.util.function.Function;
+
+/**
+ * {@code Peephole} looks through compiled code for common sequences of tokens and
+ * replaces them by {@code Superinstruction}, so sequence is executed by single token.
+ * <p>
+ *     Rules are taken from {@code .properties} file as pairs Name of superinstruction's
+ *     class-Pattern, where pattern is words split by whitespaces and '#' matches any number.
+ *     The longest pattern wins, so "1 = if" is fused as whole, not as "1 =".
+ * </p>
+ * <p>
+ *     Superinstruction takes place of the first token, other tokens stay untouched and are
+ *     skipped, so addresses of linked code don't change. Fused tokens never contain jumps
+ *     except of the last one, so nothing jumps into the middle of fused sequence
+ * </p>
+ * @see Superinstruction
+ */
+public class Peephole {
+    private final List<Rule> rules = new ArrayList<>();
+    private static final Logger logger = LogManager.getLogger(Peephole.class);
+
+    private static class Rule {
+        private final Class<?>[] pattern;
+        private final Class<? extends Superinstruction> product;
+
+        private Rule(Class<?>[] pattern, Class<? extends Superinstruction> product) {
+            this.pattern = pattern;
+            this.product = product;
+        }
+    }
+
+    /**
+     * Adds rule to the table of rules
+     * @param pattern Classes of tokens in fused sequence
+     * @param product Class of superinstruction, which replaces sequence
+     */
+    public void addRule(Class<?>[] pattern, Class<? extends Superinstruction> product) {
+        rules.add(new Rule(pattern, product));
+        rules.sort(Comparator.comparingInt((Rule rule) -> rule.pattern.length).reversed());
+    }
+
+    /**
+     * Parsing .properties file and filling table of rules
+     * @param filePath Path to resource with rules
+     * @param resolver Gives token by word of pattern or null in case of unknown word
+     * @throws ConfigException In case of unknown superinstruction or word
+     */
+    public void configure(String filePath, Function<String, Token> resolver) throws IOException {
+        Properties properties = new Properties();
+
+        try(InputStream input = Peephole.class.getResourceAsStream(filePath)) {
+            if(input == null) {
+                throw new ConfigException("file " + filePath + " wasn't found");
+            }
+            properties.load(input);
+        }
+
+        for(String className : properties.stringPropertyNames()) {
+            String[] words = properties.getProperty(className).trim().split("\\s+");
+            Class<?>[] pattern = new Class<?>[words.length];
+            for(int i = 0; i < words.length; ++i) {
+                Token token = words[i].equals("#") ? null : resolver.apply(words[i]);
+                if(token == null && !words[i].equals("#")) {
+                    throw new ConfigException("word " + words[i] + " of pattern wasn't found");
+                }
+                pattern[i] = token == null ? Literal.class : token.getClass();
+            }
+
+            try {
+                addRule(pattern, Class.forName(className).asSubclass(Superinstruction.class));
+            } catch(ClassNotFoundException | ClassCastException exception) {
+                throw new ConfigException("superinstruction " + className + " wasn't found in files");
+            }
+        }
+
+        logger.info("{} rules of peephole optimisation configured", rules.size());
+    }
+
+    /**
+     * Replaces sequences matched by rules in given code
+     * @param code Compiled and linked code
+     * @return Count of placed superinstructions
+     * @throws InstantiationException In case of any trouble with creating superinstruction
+     */
+    public int optimize(List<Token> code) {
+        int fused = 0;
+        for(int i = 0; i < code.size(); ++i) {
+            for(Rule rule : rules) {
+                if(!matches(rule, code, i)) {
+                    continue;
+                }
+
+                Superinstruction superinstruction;
+                try {
+                    superinstruction = rule.product.getConstructor().newInstance();
+                } catch(Exception exception) {
+                    throw new InstantiationException("instantiation of " + rule.product.getName() + " failed");
+                }
+                superinstruction.fuse(code.subList(i, i + rule.pattern.length));
+                code.set(i, superinstruction);
+                i += rule.pattern.length - 1;
+                ++fused;
+                break;
+            }
+        }
+        return fused;
+    }
+
+    private static boolean matches(Rule rule, List<Token> code, int address) {
+        if(address + rule.pattern.length > code.size()) {
+            return false;
+        }
+        for(int i = 0; i < rule.pattern.length; ++i) {
+            Token token = code.get(address + i);
+            if(token == null || token.getClass() != rule.pattern[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
@@ -0,0 +1,74 @@
+package compiler;
+
+import java.util.List;
+
+/**
+ * {@code Scanner} splits text to words by walking through its characters once.
+ * Whitespaces only separate words and never become words themselves, except
+ * string operator: {@code ." content"} is split to three words
+ * <p>{@code ."} - {@code " "} - {@code content"}</p>
+ * where content keeps every character between separator and closing '"'.
+ * Ordinary words are interned by {@code SymbolTable}
+ */
+public class Scanner {
+    private static final String STRING_OPERATOR = ".\"";
+    private static final String SEPARATOR = " ";
+
+    private final SymbolTable symbols = new SymbolTable();
+
+    /**
+     * Adds words of text to the end of given list
+     * @param text Text for splitting
+     * @param words List which receives words
+     */
+    public void scan(CharSequence text, List<String> words) {
+        int length = text.length();
+        int i = 0;
+        while(i < length) {
+            if(isSpace(text.charAt(i))) {
+                i++;
+                continue;
+            }
+
+            int begin = i;
+            while(i < length && !isSpace(text.charAt(i))) {
+                i++;
+            }
+
+            String word = symbols.intern(text, begin, i - begin);
+            words.add(word);
+            if(word.equals(STRING_OPERATOR) && i < length) {
+                i = scanString(text, i + 1, words);
+            }
+        }
+    }
+
+    /**
+     * Adds content of string with closing '"' as a single word. In case of unclosed
+     * string the rest of text is added without '"'
+     * @param text Scanned text
+     * @param begin Index of first character of string after separator
+     * @param words List which receives words
+     * @return Index of character after string
+     */
+    private int scanString(CharSequence text, int begin, List<String> words) {
+        int length = text.length();
+        int end = begin;
+        while(end < length && text.charAt(end) != '"') {
+            end++;
+        }
+        if(end < length) {
+            end++; // Including closing '"'
+        }
+
+        words.add(SEPARATOR);
+        words.add(text.subSequence(begin, end).toString());
+        return end;
+    }
+
+    // Same characters as \s of regular expressions
+    private static boolean isSpace(char symbol) {
+        return symbol == ' ' || symbol == '\t' || symbol == '\n'
+                || symbol == '\u000B' || symbol == '\f' || symbol == '\r';
+    }
+}
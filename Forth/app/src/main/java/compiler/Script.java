@@ -0,0 +1,115 @@
+package compiler;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * {@code Script} reads whole file and gives it by units, each unit is interpreted
+ * as a single line of REPL. Usually unit is a line, but definition can take
+ * several lines in script:
+ * <pre>
+ *     : fac
+ *         dup 1 > if dup 1 - recurse * then ;
+ *     ;
+ * </pre>
+ * Definition lasts till {@code ;} which doesn't finish construction(then ; loop ;
+ * +loop ;), words after it are the next unit. Definition without such {@code ;}
+ * takes the rest of its line as in REPL
+ */
+public class Script {
+    private static final Set<String> constructionEndings = Set.of("then", "loop", "+loop");
+
+    private final Scanner scanner;
+    private final List<List<String>> lines = new ArrayList<>();
+    private int lineIndex;
+    private int wordIndex;
+    private int lineNumber;
+
+    public Script(Scanner scanner) {
+        this.scanner = scanner;
+    }
+
+    /**
+     * Reads and splits every line of input
+     * @param reader Input of script
+     */
+    public void read(BufferedReader reader) throws IOException {
+        String text;
+        while((text = reader.readLine()) != null) {
+            List<String> words = new ArrayList<>();
+            scanner.scan(text, words);
+            lines.add(words);
+        }
+    }
+
+    /**
+     * Fills unit by the next words of script, empty lines are skipped
+     * @param unit List which receives words of unit
+     * @return False if there are no words left
+     */
+    public boolean next(List<String> unit) {
+        unit.clear();
+        while(lineIndex < lines.size() && wordIndex == lines.get(lineIndex).size()) {
+            ++lineIndex;
+            wordIndex = 0;
+        }
+        if(lineIndex == lines.size()) {
+            return false;
+        }
+
+        lineNumber = lineIndex + 1;
+        List<String> words = lines.get(lineIndex);
+        int colon = words.subList(wordIndex, words.size()).indexOf(":");
+        int[] end = colon < 0 ? null : findEnd(lineIndex, wordIndex + colon + 1);
+        if(end == null) {
+            unit.addAll(words.subList(wordIndex, words.size()));
+            wordIndex = words.size();
+            return true;
+        }
+
+        unit.addAll(words.subList(wordIndex, words.size()));
+        for(int i = lineIndex + 1; i < end[0]; ++i) {
+            unit.addAll(lines.get(i));
+        }
+        if(end[0] != lineIndex) {
+            unit.addAll(lines.get(end[0]).subList(0, end[1]));
+        } else {
+            unit.subList(end[1] - wordIndex, unit.size()).clear();
+        }
+        lineIndex = end[0];
+        wordIndex = end[1] + 1;
+        return true;
+    }
+
+    /**
+     * @return Number of line where the last unit begins(from 1)
+     */
+    public int lineNumber() {
+        return lineNumber;
+    }
+
+    /**
+     * Looks for {@code ;} which finishes definition
+     * @return Pair [line] [index of word] or null if definition isn't finished by {@code ;}
+     */
+    private int[] findEnd(int line, int index) {
+        String previous = null;
+        for(int i = line; i < lines.size(); ++i) {
+            List<String> words = lines.get(i);
+            for(int j = i == line ? index : 0; j < words.size(); ++j) {
+                String word = words.get(j);
+                if(word.equals(":")) {
+                    return null;
+                }
+                if(word.equals(";") && !constructionEndings.contains(previous)) {
+                    return new int[] { i, j };
+                }
+                previous = word;
+            }
+        }
+        return null;
+    }
+}
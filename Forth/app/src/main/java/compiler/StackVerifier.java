@@ -0,0 +1,69 @@
+package compiler;
+
+import tokens.Jump;
+import tokens.StackEffect;
+import tokens.Token;
+import tokens.superinstructions.Superinstruction;
+import tokens.superinstructions.VerifiedBlock;
+
+import java.util.List;
+
+/**
+ * {@code StackVerifier} finds effect of straight-line code on data stack during
+ * compilation. Code is split to basic blocks by jumps and their targets, sequence of
+ * {@code StackEffect} tokens inside of block is replaced by {@code VerifiedBlock},
+ * which checks depth needed by the whole sequence once instead of check in every token.
+ * <p>
+ *     Block takes place of the first token, other tokens stay untouched and are skipped
+ *     as in case of {@code Superinstruction}, so addresses don't change. Sequence is
+ *     finished by any other token(jump, call, output or unresolved word), so nothing
+ *     jumps into the middle of block. Code must be linked and optimised by {@code Peephole} before
+ * </p>
+ * @see VerifiedBlock
+ */
+public class StackVerifier {
+    private StackVerifier() { }
+
+    /**
+     * @param code Tokens of linked line or definition
+     * @param address Index of code in code space
+     * @return Count of placed blocks
+     */
+    public static int verify(List<Token> code, int address) {
+        // Execution continues after target of jump, so such token begins basic block
+        boolean[] leaders = new boolean[code.size() + 1];
+        for(Token token : code) {
+            if(token instanceof Jump) {
+                int leader = ((Jump)token).getTarget() + 1 - address;
+                if(leader >= 0 && leader < leaders.length) {
+                    leaders[leader] = true;
+                }
+            }
+        }
+
+        int placed = 0;
+        int i = 0;
+        while(i < code.size()) {
+            int end = i;
+            int length = 0;
+            while(end < code.size() && code.get(end) instanceof StackEffect && (end == i || !leaders[end])) {
+                end += size(code.get(end));
+                ++length;
+            }
+
+            if(length > 1) {
+                VerifiedBlock block = new VerifiedBlock();
+                block.fuse(code.subList(i, end));
+                code.set(i, block);
+                ++placed;
+            }
+            i = length > 0 ? end : i + size(code.get(i));
+        }
+        return placed;
+    }
+
+    // Count of slots taken by token, tokens skipped by superinstruction are never executed
+    private static int size(Token token) {
+        return token instanceof Superinstruction ? ((Superinstruction)token).size() : 1;
+    }
+}
@@ -0,0 +1,94 @@
+package compiler;
+
+/**
+ * {@code SymbolTable} interns words of program. Word is looked up by its characters
+ * right in the scanned text, so a new {@code String} is created only when word
+ * appears for the first time, every next appearance returns the same instance
+ * <p>
+ *     Table uses open addressing with linear probing and grows twice when
+ *     it becomes half full. Amount of symbols is limited as cache of {@code NumberParser} is:
+ *     table is cleared after {@code LIMIT} distinct words, so long-lived interpreter
+ *     doesn't keep every number and word it has ever read. Symbols taken before stay valid,
+ *     they just aren't shared with later appearances
+ * </p>
+ */
+public class SymbolTable {
+    private static final int DEFAULT_CAPACITY = 64;
+    public static final int LIMIT = 1 << 16;
+
+    private String[] symbols = new String[DEFAULT_CAPACITY];
+    private int size = 0;
+
+    /**
+     * Finds symbol equal to part of text or adds a new one
+     * @param text Text which contains word
+     * @param offset Index of first character of word
+     * @param length Length of word
+     * @return Interned word
+     */
+    public String intern(CharSequence text, int offset, int length) {
+        int hash = 0;
+        for(int i = offset; i < offset + length; ++i) {
+            hash = 31 * hash + text.charAt(i);
+        }
+        if(size >= LIMIT) {
+            symbols = new String[DEFAULT_CAPACITY];
+            size = 0;
+        }
+
+        int mask = symbols.length - 1;
+        for(int i = spread(hash) & mask; ; i = (i + 1) & mask) {
+            String symbol = symbols[i];
+            if(symbol == null) {
+                symbol = text.subSequence(offset, offset + length).toString();
+                symbols[i] = symbol;
+                if(++size * 2 > symbols.length) {
+                    grow();
+                }
+                return symbol;
+            }
+            if(symbol.hashCode() == hash && matches(symbol, text, offset, length)) {
+                return symbol;
+            }
+        }
+    }
+
+    /**
+     * @return Amount of interned symbols
+     */
+    public int size() {
+        return size;
+    }
+
+    private static boolean matches(String symbol, CharSequence text, int offset, int length) {
+        if(symbol.length() != length) {
+            return false;
+        }
+        for(int i = 0; i < length; ++i) {
+            if(symbol.charAt(i) != text.charAt(offset + i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static int spread(int hash) {
+        return hash ^ (hash >>> 16);
+    }
+
+    private void grow() {
+        String[] previous = symbols;
+        symbols = new String[previous.length * 2];
+        int mask = symbols.length - 1;
+        for(String symbol : previous) {
+            if(symbol == null) {
+                continue;
+            }
+            int i = spread(symbol.hashCode()) & mask;
+            while(symbols[i] != null) {
+                i = (i + 1) & mask;
+            }
+            symbols[i] = symbol;
+        }
+    }
+}
@@ -0,0 +1,58 @@
+package compiler;
+
+import tokens.Token;
+import tokens.constructions.Call;
+import tokens.constructions.Else;
+import tokens.constructions.Exit;
+import tokens.constructions.TailCall;
+import tokens.constructions.Then;
+
+import java.util.List;
+
+/**
+ * {@code TailCallEliminator} replaces calls in tail position of definition by
+ * {@code TailCall}, which jumps without pushing return address. Call is in tail
+ * position if only {@code Exit} can be executed after it, constructions are followed:
+ *     <p>then ; - execution continues after ';'</p>
+ *     <p>else - execution continues after then ; of construction</p>
+ * Calls inside of cycles aren't in tail position, because their frames are dropped
+ * by loop. Definition must be linked before
+ * @see TailCall
+ */
+public class TailCallEliminator {
+    private TailCallEliminator() { }
+
+    /**
+     * @param code Tokens of linked definition, which is finished by {@code Exit}
+     * @param address Index of definition in code space
+     * @return Count of replaced calls
+     */
+    public static int eliminate(List<Token> code, int address) {
+        int replaced = 0;
+        for(int i = 0; i < code.size(); ++i) {
+            if(code.get(i) instanceof Call && returns(code, i + 1, address)) {
+                code.set(i, new TailCall((Call)code.get(i)));
+                ++replaced;
+            }
+        }
+        return replaced;
+    }
+
+    // Tells whether execution reaches Exit from given index without executing anything else
+    private static boolean returns(List<Token> code, int index, int address) {
+        while(index >= 0 && index < code.size()) {
+            Token token = code.get(index);
+            if(token instanceof Exit) {
+                return true;
+            }
+            if(token instanceof Then) {
+                index += 2;
+            } else if(token instanceof Else) {
+                index = ((Else)token).getTarget() + 1 - address;
+            } else {
+                return false;
+            }
+        }
+        return false;
+    }
+}
@@ -1,10 +1,16 @@
 package context;
 
+import data_types.DataSpace;
+import data_types.IntStack;
 import data_types.MutableInt;
+import exceptions.InterruptException;
+import out_formatter.OutFormatter;
+import profile.Profiler;
 import java.io.ByteArrayOutputStream;
 import java.io.InputStream;
 import java.io.PrintStream;
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 
@@ -13,38 +19,150 @@ import java.util.Map;
  * It needed for passing required data to execute() commands.
  * So there are a few methods for changing state of data, without changing references to those structures.
  * <p>
- *     {@code Context} constructed as a simple container so all of its methods are primal
- *     and intuitively understandable
+ *     Interpreter creates a single {@code Context} and passes it to every executed token,
+ *     so execution of token doesn't create anything
+ * </p>
+ * <p>
+ *     {@code Context} is created by {@code Builder} and constructed as a simple container,
+ *     so all of its methods are primal and intuitively understandable
  * </p>
  */
 public class Context {
     private final MutableInt programCounter;
     private final Map<String, ArrayList<String>> definedCommands;
-    private final ArrayList<Integer> stack;
+    private final IntStack stack;
+    private final IntStack returnStack;
+    private final MutableInt base;
     private final ArrayList<String> line;
+    private final DataSpace dataSpace;
+    private final Profiler profiler;
+    private final List<String> newCommands = new ArrayList<>();
+    private String savedImage;
+    private String loadedImage;
+    private volatile boolean interrupted;
 
     private final InputStream in;
     private final ByteArrayOutputStream out;
     private final PrintStream outStream;
+    private final OutFormatter outFormatter;
 
     /**
-     * Once constructed {@code Context} won't be changeable in meaning of references,
-     * because do it much safer(fields won't be barely changed). So {@code Context} must be reconstructed every time.
-     * @param definedCommands Map filled by String-ArrayList, it helps find definition by name or add definition by name
-     * @param programCounter PC from assembly instructions, it shows which token executes
-     * @param stack Stack for integers
-     * @param line Current line, parsed from input
+     * {@code Builder} collects structures of {@code Context}, every structure which isn't
+     * given is created empty, so each user passes only those it shares with others
      */
-    public Context(Map<String, ArrayList<String>> definedCommands, MutableInt programCounter, ArrayList<Integer> stack, ArrayList<String> line) {
-        this.definedCommands = definedCommands;
-        this.programCounter = programCounter;
-        this.stack = stack;
-        this.line = line;
+    public static class Builder {
+        private Map<String, ArrayList<String>> definedCommands = new HashMap<>();
+        private MutableInt programCounter = new MutableInt(0);
+        private IntStack stack = new IntStack();
+        private IntStack returnStack = new IntStack();
+        private MutableInt base = new MutableInt(10);
+        private OutFormatter outFormatter;
+        private ArrayList<String> line = new ArrayList<>();
+        private DataSpace dataSpace;
+        private Profiler profiler;
+
+        /**
+         * @param definedCommands Map filled by String-ArrayList, it helps find definition by name or add definition by name
+         */
+        public Builder definedCommands(Map<String, ArrayList<String>> definedCommands) {
+            this.definedCommands = definedCommands;
+            return this;
+        }
+
+        /**
+         * @param programCounter PC from assembly instructions, it shows which token executes
+         */
+        public Builder programCounter(MutableInt programCounter) {
+            this.programCounter = programCounter;
+            return this;
+        }
+
+        /**
+         * @param stack Stack for integers
+         */
+        public Builder stack(IntStack stack) {
+            this.stack = stack;
+            return this;
+        }
+
+        /**
+         * @param returnStack Stack for control parameters of loops and return addresses
+         */
+        public Builder returnStack(IntStack returnStack) {
+            this.returnStack = returnStack;
+            return this;
+        }
+
+        /**
+         * @param base Base of numeral system for reading and printing numbers
+         */
+        public Builder base(MutableInt base) {
+            this.base = base;
+            return this;
+        }
+
+        /**
+         * @param outFormatter Output of interpreter, without it output goes to stream of context
+         */
+        public Builder outFormatter(OutFormatter outFormatter) {
+            this.outFormatter = outFormatter;
+            return this;
+        }
 
-        String input = "";
-        in = Context.class.getResourceAsStream(input);
-        out = new ByteArrayOutputStream();
-        outStream = new PrintStream(out);
+        /**
+         * @param line Current line, parsed from input
+         */
+        public Builder line(ArrayList<String> line) {
+            this.line = line;
+            return this;
+        }
+
+        /**
+         * @param dataSpace Memory of variables and arrays
+         */
+        public Builder dataSpace(DataSpace dataSpace) {
+            this.dataSpace = dataSpace;
+            return this;
+        }
+
+        /**
+         * @param profiler Measurements of commands, profiling is turned off without it
+         */
+        public Builder profiler(Profiler profiler) {
+            this.profiler = profiler;
+            return this;
+        }
+
+        /**
+         * Once constructed {@code Context} won't be changeable in meaning of references,
+         * because do it much safer(fields won't be barely changed)
+         * @see #outFlush
+         */
+        public Context build() {
+            return new Context(this);
+        }
+    }
+
+    private Context(Builder builder) {
+        definedCommands = builder.definedCommands;
+        programCounter = builder.programCounter;
+        stack = builder.stack;
+        returnStack = builder.returnStack;
+        base = builder.base;
+        line = builder.line;
+        dataSpace = builder.dataSpace != null ? builder.dataSpace : new DataSpace();
+        profiler = builder.profiler;
+
+        in = InputStream.nullInputStream();
+        if(builder.outFormatter == null) {
+            out = new ByteArrayOutputStream();
+            outStream = new PrintStream(out);
+            outFormatter = new OutFormatter(outStream);
+        } else {
+            out = null;
+            outStream = null;
+            outFormatter = builder.outFormatter;
+        }
     }
 
     // Input-Output section
@@ -60,6 +178,11 @@ public class Context {
     public String outFlush() {
         return out.toString();
     }
+
+    public OutFormatter outFormatterGet() {
+        return outFormatter;
+    }
+
     // Defined Commands section
 
     /**
@@ -78,6 +201,85 @@ public class Context {
      */
     public void defineCommandPut(String key, ArrayList<String> value) {
         definedCommands.put(key, value);
+        newCommands.add(key);
+    }
+
+    /**
+     * Gives names of commands put since the previous call, so they can be compiled
+     * @return Names in order of definition
+     */
+    public List<String> newCommandsTake() {
+        List<String> names = new ArrayList<>(newCommands);
+        newCommands.clear();
+        return names;
+    }
+
+    // Image section
+
+    /**
+     * Asks interpreter to save image of dictionary after the end of line
+     * @param path Path of image file
+     */
+    public void imageSave(String path) {
+        savedImage = path;
+    }
+
+    /**
+     * Asks interpreter to replace dictionary by image after the end of line
+     * @param path Path of image file
+     */
+    public void imageLoad(String path) {
+        loadedImage = path;
+    }
+
+    /**
+     * @return Path of image which should be saved or null, request is removed
+     */
+    public String savedImageTake() {
+        String path = savedImage;
+        savedImage = null;
+        return path;
+    }
+
+    /**
+     * @return Path of image which should be loaded or null, request is removed
+     */
+    public String loadedImageTake() {
+        String path = loadedImage;
+        loadedImage = null;
+        return path;
+    }
+
+    // Data space section
+
+    public DataSpace dataSpaceGet() {
+        return dataSpace;
+    }
+
+    // Profiler section
+
+    public Profiler profilerGet() {
+        return profiler;
+    }
+
+    // Interrupt section
+
+    /**
+     * Asks execution to stop, it's called by another thread than the one which executes line
+     * @param value True to stop execution, false to allow it again
+     */
+    public void interruptedSet(boolean value) {
+        interrupted = value;
+    }
+
+    /**
+     * It's called at every step of cycle and every call, so endless execution can be stopped
+     * @throws InterruptException If execution is asked to stop
+     */
+    public void interruptedCheck() {
+        if(interrupted) {
+            throw new InterruptException("interrupted");
+        }
     }
 
     // Program counter section
@@ -100,6 +302,14 @@ public class Context {
 
     // Stack section
 
+    /**
+     * Gives stack itself to compiled code, which works with it directly
+     * @return data stack
+     */
+    public IntStack stackGet() {
+        return stack;
+    }
+
     /**
      * Allows to get a value from stack by index
      * @param index index of value in stack
@@ -119,11 +329,76 @@ public class Context {
     }
 
     /**
-     * Adds a value to the end of stack
+     * Adds a value on top of stack
      * @param value value for adding
      */
-    public void stackAdd(int value) {
-        stack.add(value);
+    public void stackPush(int value) {
+        stack.push(value);
+    }
+
+    /**
+     * Removes value from top of stack
+     * @return removed value
+     */
+    public int stackPop() {
+        return stack.pop();
+    }
+
+    /**
+     * Allows to get top of stack without removing it
+     * @return top of stack
+     */
+    public int stackPeek() {
+        return stack.peek();
+    }
+
+    /**
+     * Allows to get a value by its distance from top of stack
+     * @param depth distance from top(0 means top of stack)
+     * @return value on given depth
+     */
+    public int stackPick(int depth) {
+        return stack.pick(depth);
+    }
+
+    /**
+     * Makes room for pushes without checks
+     * @param count count of values which will be pushed
+     * @return False if stack would exceed its limit
+     */
+    public boolean stackReserve(int count) {
+        return stack.reserve(count);
+    }
+
+    /**
+     * Adds value on top of stack, its place must be reserved before
+     * @param value value for adding
+     */
+    public void stackPushUnchecked(int value) {
+        stack.pushUnchecked(value);
+    }
+
+    /**
+     * Removes value from top of stack, which must not be empty
+     * @return removed value
+     */
+    public int stackPopUnchecked() {
+        return stack.popUnchecked();
+    }
+
+    /**
+     * @return top of stack without removing it, stack must not be empty
+     */
+    public int stackPeekUnchecked() {
+        return stack.peekUnchecked();
+    }
+
+    /**
+     * @param depth distance from top(0 means top of stack), stack must be deeper
+     * @return value on given depth
+     */
+    public int stackPickUnchecked(int depth) {
+        return stack.pickUnchecked(depth);
     }
 
     /**
@@ -150,6 +425,57 @@ public class Context {
         return stack.size();
     }
 
+    // Base section
+
+    /**
+     * @return base of numeral system for reading and printing numbers
+     */
+    public int baseGet() {
+        return base.get();
+    }
+
+    /**
+     * @param value new base of numeral system
+     */
+    public void baseSet(int value) {
+        base.set(value);
+    }
+
+    // Return stack section
+
+    /**
+     * Adds a value on top of return stack
+     * @param value value for adding
+     */
+    public void returnStackPush(int value) {
+        returnStack.push(value);
+    }
+
+    /**
+     * Removes value from top of return stack
+     * @return removed value
+     */
+    public int returnStackPop() {
+        return returnStack.pop();
+    }
+
+    /**
+     * Allows to get a value by its distance from top of return stack
+     * @param depth distance from top(0 means top of return stack)
+     * @return value on given depth
+     */
+    public int returnStackPick(int depth) {
+        return returnStack.pick(depth);
+    }
+
+    /**
+     * Allows to find out size of return stack
+     * @return return stack size
+     */
+    public int returnStackSize() {
+        return returnStack.size();
+    }
+
     // Line section
 
     /**
@@ -0,0 +1,155 @@
+package data_types;
+
+import exceptions.MemoryException;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+
+/**
+ * {@code DataSpace} is linear memory of interpreter placed off-heap in direct
+ * {@code ByteBuffer}. Addresses are offsets of bytes, cell takes 4 bytes.
+ * <p>
+ *     Memory is allocated from the beginning by moving {@code here}, it's never freed.
+ *     Every access is checked by bounds of whole space and reads/writes buffer by
+ *     absolute index, so nothing is created during access
+ * </p>
+ */
+public class DataSpace {
+    public static final int CELL = Integer.BYTES;
+    public static final int DEFAULT_SIZE = 1 << 16;
+
+    private final ByteBuffer memory;
+    private int here;
+
+    public DataSpace() {
+        this(DEFAULT_SIZE);
+    }
+
+    /**
+     * @param size Size of space in bytes
+     */
+    public DataSpace(int size) {
+        memory = ByteBuffer.allocateDirect(size).order(ByteOrder.nativeOrder());
+    }
+
+    public int size() {
+        return memory.capacity();
+    }
+
+    /**
+     * @return Address of the first free byte
+     */
+    public int here() {
+        return here;
+    }
+
+    /**
+     * Reserves bytes after here, negative count gives them back
+     * @param count Count of bytes
+     * @throws MemoryException If here leaves space
+     */
+    public void allot(int count) {
+        long next = (long)here + count;
+        if(next < 0 || next > memory.capacity()) {
+            throw new MemoryException("data space overflow");
+        }
+        here = (int)next;
+    }
+
+    /**
+     * Moves here to the next address of cell
+     */
+    public void align() {
+        allot(-here & (CELL - 1));
+    }
+
+    public int fetch(int address) {
+        check(address, CELL);
+        return memory.getInt(address);
+    }
+
+    public void store(int address, int value) {
+        check(address, CELL);
+        memory.putInt(address, value);
+    }
+
+    /**
+     * @return Unsigned byte
+     */
+    public int fetchChar(int address) {
+        check(address, 1);
+        return memory.get(address) & 0xff;
+    }
+
+    public void storeChar(int address, int value) {
+        check(address, 1);
+        memory.put(address, (byte)value);
+    }
+
+    /**
+     * Copies bytes, areas can overlap
+     * @param from Address of source
+     * @param to Address of destination
+     * @param count Count of bytes, nothing is copied if it isn't positive
+     */
+    public void move(int from, int to, int count) {
+        if(count <= 0) {
+            return;
+        }
+        check(from, count);
+        check(to, count);
+        if(from < to) {
+            for(int i = count - 1; i >= 0; --i) {
+                memory.put(to + i, memory.get(from + i));
+            }
+        } else {
+            for(int i = 0; i < count; ++i) {
+                memory.put(to + i, memory.get(from + i));
+            }
+        }
+    }
+
+    /**
+     * @param address Address of the first byte
+     * @param count Count of bytes, nothing is filled if it isn't positive
+     * @param value Byte which is written
+     */
+    public void fill(int address, int count, int value) {
+        if(count <= 0) {
+            return;
+        }
+        check(address, count);
+        for(int i = 0; i < count; ++i) {
+            memory.put(address + i, (byte)value);
+        }
+    }
+
+    /**
+     * @return Read-only view of memory from the beginning till here
+     */
+    public ByteBuffer used() {
+        return memory.duplicate().position(0).limit(here).slice().asReadOnlyBuffer();
+    }
+
+    /**
+     * Replaces used memory by given bytes, here is moved to their end
+     * and memory which was used after them is zeroed
+     * @param source Bytes from position till limit, position isn't changed
+     * @throws MemoryException If bytes don't fit in space
+     */
+    public void restore(ByteBuffer source) {
+        int count = source.remaining();
+        if(count > memory.capacity()) {
+            throw new MemoryException("data space overflow");
+        }
+        memory.put(0, source, source.position(), count);
+        fill(count, here - count, 0);
+        here = count;
+    }
+
+    private void check(int address, int length) {
+        if(address < 0 || address > memory.capacity() - length) {
+            throw new MemoryException("invalid address");
+        }
+    }
+}
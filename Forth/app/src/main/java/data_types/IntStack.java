@@ -0,0 +1,201 @@
+package data_types;
+
+import exceptions.StackException;
+
+import java.util.Arrays;
+
+/**
+ * {@code IntStack} is a growable stack of primitive integers, so pushing
+ * and popping values never boxes them.
+ * <p>
+ *     Indexes in get/set/remove are counted from the bottom of stack like in a list,
+ *     depth in pick is counted from the top(0 means top of stack).
+ *     Stack grows until its limit is reached, after that every push throws "stack overflow"
+ * </p>
+ * <p>
+ *     Unchecked methods only touch array and size, they are used by code whose depth of
+ *     stack is verified before and whose pushes are reserved
+ * </p>
+ */
+public class IntStack {
+    private static final int DEFAULT_CAPACITY = 16;
+    private static final int DEFAULT_LIMIT = 1 << 20;
+
+    private final int limit;
+    private int[] elements;
+    private int size = 0;
+
+    public IntStack() {
+        this(DEFAULT_LIMIT);
+    }
+
+    /**
+     * @param limit Maximal amount of values in stack
+     */
+    public IntStack(int limit) {
+        this.limit = limit;
+        elements = new int[Math.min(DEFAULT_CAPACITY, limit)];
+    }
+
+    /**
+     * Adds a value on top of stack
+     * @param value value for adding
+     * @throws StackException In case of reaching limit of stack
+     */
+    public void push(int value) {
+        if(size == elements.length) {
+            grow();
+        }
+        elements[size++] = value;
+    }
+
+    /**
+     * Removes value from top of stack
+     * @return removed value
+     * @throws StackException In case of empty stack
+     */
+    public int pop() {
+        if(size == 0) {
+            throw new StackException("stack underflow");
+        }
+        return elements[--size];
+    }
+
+    /**
+     * @return value from top of stack without removing it
+     * @throws StackException In case of empty stack
+     */
+    public int peek() {
+        if(size == 0) {
+            throw new StackException("stack underflow");
+        }
+        return elements[size - 1];
+    }
+
+    /**
+     * @param depth distance from top of stack(0 means top)
+     * @return value placed on given depth
+     * @throws StackException In case of stack with less than depth + 1 values
+     */
+    public int pick(int depth) {
+        if(depth < 0 || depth >= size) {
+            throw new StackException("stack underflow");
+        }
+        return elements[size - 1 - depth];
+    }
+
+    /**
+     * Grows stack, so given count of values can be pushed by {@link #pushUnchecked(int)}
+     * @param count count of values which will be pushed
+     * @return False if stack can't contain them because of its limit, nothing is changed then
+     */
+    public boolean reserve(int count) {
+        if(count <= elements.length - size) {
+            return true;
+        }
+        if(count > limit - size) {
+            return false;
+        }
+        int capacity = (int)Math.min(Math.max((long)elements.length * 2, (long)size + count), limit);
+        elements = Arrays.copyOf(elements, capacity);
+        return true;
+    }
+
+    /**
+     * Same as push, but place for value must be reserved before
+     * @param value value for adding
+     * @see #reserve(int)
+     */
+    public void pushUnchecked(int value) {
+        elements[size++] = value;
+    }
+
+    /**
+     * Same as pop, but caller guarantees that stack isn't empty
+     * @return removed value
+     */
+    public int popUnchecked() {
+        return elements[--size];
+    }
+
+    /**
+     * Same as peek, but caller guarantees that stack isn't empty
+     * @return value from top of stack without removing it
+     */
+    public int peekUnchecked() {
+        return elements[size - 1];
+    }
+
+    /**
+     * Same as pick, but caller guarantees that stack contains more than depth values
+     * @param depth distance from top of stack(0 means top)
+     * @return value placed on given depth
+     */
+    public int pickUnchecked(int depth) {
+        return elements[size - 1 - depth];
+    }
+
+    /**
+     * @param index index of value from the bottom of stack
+     * @return value by index
+     */
+    public int get(int index) {
+        checkIndex(index);
+        return elements[index];
+    }
+
+    /**
+     * @param index index of value from the bottom of stack
+     * @param value value which will be set
+     */
+    public void set(int index, int value) {
+        checkIndex(index);
+        elements[index] = value;
+    }
+
+    /**
+     * Removes value by index and shifts every value above it
+     * @param index index of value from the bottom of stack
+     * @return removed value
+     */
+    public int remove(int index) {
+        checkIndex(index);
+        int value = elements[index];
+        System.arraycopy(elements, index + 1, elements, index, size - index - 1);
+        size--;
+        return value;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public void clear() {
+        size = 0;
+    }
+
+    /**
+     * @return copy of stack values from the bottom to the top
+     */
+    public int[] toArray() {
+        return Arrays.copyOf(elements, size);
+    }
+
+    private void checkIndex(int index) {
+        if(index < 0 || index >= size) {
+            throw new StackException("stack underflow");
+        }
+    }
+
+    private void grow() {
+        if(elements.length >= limit) {
+            throw new StackException("stack overflow");
+        }
+        int capacity = (int)Math.min((long)elements.length * 2, limit);
+        elements = Arrays.copyOf(elements, Math.max(capacity, 1));
+    }
+}
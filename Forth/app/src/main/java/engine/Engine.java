@@ -0,0 +1,24 @@
+package engine;
+
+import tokens.constructions.Call;
+
+/**
+ * {@code Engine} executes compiled code space. Engine is chosen by
+ * {@code -Dforth.engine}: token(default) or methodhandle
+ * @see TokenEngine
+ * @see MethodHandleEngine
+ */
+public interface Engine {
+    /**
+     * Executes code space from given address till its end(current line is
+     * always placed at the end of code space)
+     * @param address Address of first token
+     */
+    void execute(int address);
+
+    /**
+     * Tells that definition of command was compiled to new address or removed
+     * @param call {@code Call} of defined command
+     */
+    void defined(Call call);
+}
@@ -0,0 +1,345 @@
+package engine;
+
+import context.Context;
+import exceptions.StackException;
+import exceptions.SyntaxException;
+import tokens.Defining;
+import tokens.Jump;
+import tokens.Token;
+import tokens.constructions.*;
+import tokens.instructions.Literal;
+import tokens.superinstructions.Superinstruction;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.invoke.MutableCallSite;
+import java.lang.reflect.Modifier;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * {@code MethodHandleEngine} links compiled code to tree of {@code MethodHandle}, so
+ * sequence of tokens is a chain of handles bound to their tokens and JVM can inline
+ * straight-line code as a whole:
+ *     <p>numbers are bound to push of stack by insertArguments</p>
+ *     <p>if/else/then is guardWithTest, do/loop is doWhileLoop</p>
+ *     <p>leave and exit leave their handles by exceptions without stack trace</p>
+ *     <p>self-defined commands are called through {@code MutableCallSite}, so
+ *     redefinition just changes target of site</p>
+ *     <p>tail call leaves definition by exception too, command is called by its caller's
+ *     call afterwards, so tail recursion doesn't grow JVM stack</p>
+ * Tokens, stack, return stack and frames of cycles are the same as in {@code TokenEngine}.
+ * Definition is linked at its first call, line is linked each time. Depth of
+ * recursion is limited by JVM stack
+ */
+public class MethodHandleEngine implements Engine {
+    private static final MethodType EXECUTE = MethodType.methodType(void.class, Context.class);
+    private static final MethodHandles.Lookup lookup = MethodHandles.lookup();
+    private static final MethodHandle NOTHING = MethodHandles.empty(EXECUTE);
+    private static final MethodHandle TOKEN;
+    private static final MethodHandle PUSH;
+    private static final MethodHandle SET_PROGRAM_COUNTER;
+    private static final MethodHandle RETURN_PUSH;
+    private static final MethodHandle FALLS_THROUGH;
+    private static final MethodHandle REPEATS;
+    private static final MethodHandle UNRESOLVED;
+    private static final MethodHandle LEAVE;
+    private static final MethodHandle EXIT;
+    private static final MethodHandle LINK;
+    private static final MethodHandle CALL;
+    private static final MethodHandle TAIL_CALL;
+
+    static {
+        try {
+            TOKEN = lookup.findVirtual(Token.class, "execute", EXECUTE);
+            PUSH = lookup.findVirtual(Context.class, "stackPush", MethodType.methodType(void.class, int.class));
+            SET_PROGRAM_COUNTER = lookup.findVirtual(Context.class, "programCounterSet",
+                    MethodType.methodType(void.class, int.class));
+            RETURN_PUSH = lookup.findVirtual(Context.class, "returnStackPush",
+                    MethodType.methodType(void.class, int.class));
+            FALLS_THROUGH = lookup.findStatic(MethodHandleEngine.class, "fallsThrough",
+                    MethodType.methodType(boolean.class, Token.class, int.class, int.class, Context.class));
+            REPEATS = lookup.findStatic(MethodHandleEngine.class, "repeats",
+                    MethodType.methodType(boolean.class, Token.class, int.class, Context.class));
+            UNRESOLVED = lookup.findStatic(MethodHandleEngine.class, "unresolved", EXECUTE);
+            LEAVE = lookup.findStatic(MethodHandleEngine.class, "leave",
+                    MethodType.methodType(void.class, Token.class, Context.class));
+            EXIT = lookup.findStatic(MethodHandleEngine.class, "exit",
+                    MethodType.methodType(void.class, Token.class, Context.class));
+            LINK = lookup.findVirtual(MethodHandleEngine.class, "link",
+                    MethodType.methodType(void.class, Call.class, Context.class));
+            CALL = lookup.findVirtual(MethodHandleEngine.class, "call",
+                    MethodType.methodType(void.class, MethodHandle.class, Context.class));
+            TAIL_CALL = lookup.findVirtual(MethodHandleEngine.class, "tailCall",
+                    MethodType.methodType(void.class, MethodHandle.class, Context.class));
+        } catch(ReflectiveOperationException exception) {
+            throw new ExceptionInInitializerError(exception);
+        }
+    }
+
+    // Leaves the innermost cycle
+    private static final class LeaveSignal extends RuntimeException {
+        private static final LeaveSignal INSTANCE = new LeaveSignal();
+
+        private LeaveSignal() {
+            super(null, null, false, false);
+        }
+    }
+
+    // Leaves definition
+    private static final class ExitSignal extends RuntimeException {
+        private static final ExitSignal INSTANCE = new ExitSignal();
+
+        private ExitSignal() {
+            super(null, null, false, false);
+        }
+    }
+
+    // Leaves definition, which is replaced by command of tail call
+    private static final class TailSignal extends RuntimeException {
+        private static final TailSignal INSTANCE = new TailSignal();
+
+        private TailSignal() {
+            super(null, null, false, false);
+        }
+    }
+
+    private final List<String> words;
+    private final List<Token> code;
+    private final Context context;
+    private final Map<Call, MutableCallSite> sites = new HashMap<>();
+    private MethodHandle tail; // command called by the last tail call
+
+    /**
+     * @param words Words of code space
+     * @param code Code space
+     * @param context context of execution
+     */
+    public MethodHandleEngine(List<String> words, List<Token> code, Context context) {
+        this.words = words;
+        this.code = code;
+        this.context = context;
+    }
+
+    public void execute(int address) {
+        tail = null;
+        MethodHandle line = catchSignal(block(address, code.size()), address, code.size(), ExitSignal.class);
+        try {
+            line.invokeExact(context);
+        } catch(StackOverflowError error) {
+            throw new StackException("stack overflow");
+        } catch(RuntimeException | Error exception) {
+            throw exception;
+        } catch(Throwable throwable) {
+            throw new RuntimeException(throwable);
+        }
+    }
+
+    public void defined(Call call) {
+        MutableCallSite site = sites.get(call);
+        if(site != null) {
+            site.setTarget(LINK.bindTo(this).bindTo(call));
+        }
+    }
+
+    /**
+     * Links definition at its first call and replaces target of call site by it
+     */
+    private void link(Call call, Context context) throws Throwable {
+        if(call.getAddress() == Call.UNDEFINED) {
+            throw new SyntaxException("invalid syntax");
+        }
+
+        int end = call.getAddress();
+        while(!(code.get(end) instanceof Exit && words.get(end).equals(";"))) {
+            ++end;
+        }
+        MethodHandle definition = catchSignal(block(call.getAddress(), end + 1), call.getAddress(), end,
+                ExitSignal.class);
+        definition = catchSignal(definition, call.getAddress(), end, TailSignal.class);
+        sites.get(call).setTarget(definition);
+        definition.invokeExact(context);
+    }
+
+    /**
+     * Links tokens placed one after another, constructions are linked as a whole
+     * @param from Index of first token
+     * @param to Index after last token
+     * @return Handle of type (Context)void
+     */
+    private MethodHandle block(int from, int to) {
+        List<MethodHandle> steps = new ArrayList<>();
+        for(int i = from; i < to; ++i) {
+            Token token = code.get(i);
+            if(token == null) {
+                steps.add(UNRESOLVED);
+                break;
+            }
+
+            if(token instanceof Literal) {
+                steps.add(MethodHandles.insertArguments(PUSH, 1, ((Literal)token).get()));
+            } else if(token instanceof Do) {
+                int loopIndex = ((Do)token).getTarget() - 1;
+                MethodHandle cycle = MethodHandles.doWhileLoop(null, block(i + 1, loopIndex),
+                        MethodHandles.insertArguments(REPEATS, 0, code.get(loopIndex), loopIndex));
+                steps.add(MethodHandles.guardWithTest(MethodHandles.insertArguments(FALLS_THROUGH, 0, token, i, i),
+                        catchSignal(cycle, i, loopIndex, LeaveSignal.class), NOTHING));
+                i = loopIndex + 1; // ';' after loop
+            } else if(token instanceof Jump && !(token instanceof Else) && !(token instanceof Leave)) {
+                // if or superinstruction which ends by if
+                int next = token instanceof Superinstruction ? i + ((Superinstruction)token).size() : i + 1;
+                int target = ((Jump)token).getTarget();
+                MethodHandle taken;
+                MethodHandle otherwise = NOTHING;
+                int thenIndex;
+                if(code.get(target) instanceof Else) {
+                    thenIndex = ((Else)code.get(target)).getTarget() - 1;
+                    taken = block(next, target);
+                    otherwise = block(target + 1, thenIndex);
+                } else {
+                    thenIndex = target - 1;
+                    taken = block(next, thenIndex);
+                }
+                steps.add(MethodHandles.guardWithTest(
+                        MethodHandles.insertArguments(FALLS_THROUGH, 0, token, i, next - 1), taken, otherwise));
+                i = thenIndex + 1; // ';' after then
+            } else if(token instanceof Leave) {
+                steps.add(LEAVE.bindTo(token));
+                break;
+            } else if(token instanceof Exit) {
+                if(!words.get(i).equals(";")) {
+                    steps.add(EXIT.bindTo(token));
+                    break;
+                }
+                steps.add(bind(token));
+            } else if(token instanceof Call) {
+                steps.add(MethodHandles.insertArguments(RETURN_PUSH, 1, i));
+                steps.add(CALL.bindTo(this).bindTo(site((Call)token).dynamicInvoker()));
+            } else if(token instanceof TailCall) {
+                steps.add(TAIL_CALL.bindTo(this).bindTo(site(((TailCall)token).getCall()).dynamicInvoker()));
+                break;
+            } else if(token instanceof PrintString || token instanceof Command || token instanceof Defining) {
+                // String, definition and name are found by program counter
+                steps.add(MethodHandles.insertArguments(SET_PROGRAM_COUNTER, 1, i));
+                steps.add(bind(token));
+                if(token instanceof Command) {
+                    break; // Rest of line is a definition
+                }
+                if(token instanceof Defining) {
+                    ++i; // name
+                    continue;
+                }
+                int end = i + 2;
+                while(end < to && !words.get(end).contains("\"")) {
+                    ++end; // content of string
+                }
+                if(end >= to) {
+                    break; // String isn't closed, it's reported by token
+                }
+                i = end;
+            } else if(token instanceof Superinstruction) {
+                steps.add(bind(token));
+                i += ((Superinstruction)token).size() - 1;
+            } else {
+                steps.add(bind(token));
+            }
+        }
+
+        return sequence(steps, 0, steps.size());
+    }
+
+    private MutableCallSite site(Call call) {
+        return sites.computeIfAbsent(call, key -> new MutableCallSite(LINK.bindTo(this).bindTo(key)));
+    }
+
+    /**
+     * Chains handles as balanced tree, so depth of inlining grows
+     * logarithmically with length of block
+     */
+    private static MethodHandle sequence(List<MethodHandle> steps, int from, int to) {
+        if(from == to) {
+            return NOTHING;
+        }
+        if(to - from == 1) {
+            return steps.get(from);
+        }
+        int middle = (from + to) >>> 1;
+        return MethodHandles.foldArguments(sequence(steps, middle, to), sequence(steps, from, middle));
+    }
+
+    // Handle of execute bound to token, exact class is used when it's possible
+    private static MethodHandle bind(Token token) {
+        if(Modifier.isPublic(token.getClass().getModifiers())) {
+            try {
+                return lookup.findVirtual(token.getClass(), "execute", EXECUTE).bindTo(token);
+            } catch(ReflectiveOperationException exception) {
+                // Interface's handle is used
+            }
+        }
+        return TOKEN.bindTo(token);
+    }
+
+    /**
+     * Catches signal of leave or exit, if there is token which sends it
+     * @param from Index of first token of construction
+     * @param to Index of last token, which isn't checked
+     */
+    private MethodHandle catchSignal(MethodHandle target, int from, int to, Class<? extends Throwable> signal) {
+        Class<?> sender = signal == LeaveSignal.class ? Leave.class
+                : signal == TailSignal.class ? TailCall.class : Exit.class;
+        for(int i = from; i < to; ++i) {
+            if(sender.isInstance(code.get(i))) {
+                return MethodHandles.catchException(target, signal, MethodHandles.dropArguments(NOTHING, 0, signal));
+            }
+        }
+        return target;
+    }
+
+    // Executes jump and tells if it continues to next token, which is placed after given program counter
+    private static boolean fallsThrough(Token token, int pc, int next, Context context) {
+        context.programCounterSet(pc);
+        token.execute(context);
+        return context.programCounterGet() == next;
+    }
+
+    // Executes loop or +loop and tells if cycle continues
+    private static boolean repeats(Token token, int pc, Context context) {
+        context.programCounterSet(pc);
+        token.execute(context);
+        return context.programCounterGet() != pc + 1;
+    }
+
+    // Calls command and commands of its tail calls one after another, each of them can be interrupted
+    private void call(MethodHandle command, Context context) throws Throwable {
+        context.interruptedCheck();
+        command.invokeExact(context);
+        while(tail != null) {
+            MethodHandle next = tail;
+            tail = null;
+            context.interruptedCheck();
+            next.invokeExact(context);
+        }
+    }
+
+    private void tailCall(MethodHandle command, Context context) {
+        tail = command;
+        throw TailSignal.INSTANCE;
+    }
+
+    private static void unresolved(Context context) {
+        throw new RuntimeException("invalid syntax");
+    }
+
+    private static void leave(Token token, Context context) {
+        token.execute(context);
+        throw LeaveSignal.INSTANCE;
+    }
+
+    private static void exit(Token token, Context context) {
+        token.execute(context);
+        throw ExitSignal.INSTANCE;
+    }
+}
@@ -0,0 +1,81 @@
+package engine;
+
+import context.Context;
+import data_types.MutableInt;
+import profile.Profiler;
+import tokens.Token;
+import tokens.constructions.Call;
+import tokens.constructions.Exit;
+import tokens.constructions.TailCall;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import java.util.List;
+
+/**
+ * {@code ProfilingEngine} interprets code space token by token as {@code TokenEngine}
+ * does and measures every token for {@code Profiler}. {@code Call} begins execution
+ * of self-defined command, {@code Exit} finishes it and {@code TailCall} replaces it
+ * by the called one. It's used only when profiling is turned on, so other engines
+ * don't pay anything for it
+ * @see Profiler
+ */
+public class ProfilingEngine implements Engine {
+    private final List<String> words;
+    private final List<Token> code;
+    private final Context context;
+    private final MutableInt programCounter;
+    private final Profiler profiler;
+    private static final Logger logger = LogManager.getLogger(ProfilingEngine.class);
+
+    /**
+     * @param words Words of code space
+     * @param code Code space
+     * @param context context of execution
+     * @param programCounter Program counter of context
+     * @param profiler Collector of measurements
+     */
+    public ProfilingEngine(List<String> words, List<Token> code, Context context, MutableInt programCounter,
+                           Profiler profiler) {
+        this.words = words;
+        this.code = code;
+        this.context = context;
+        this.programCounter = programCounter;
+        this.profiler = profiler;
+    }
+
+    public void execute(int address) {
+        programCounter.set(address);
+        try {
+            for(int pc = address; pc < code.size(); pc = programCounter.incrementAndGet()) {
+                Token token = code.get(pc);
+                if(token == null) {
+                    logger.error("Token {} unresolved", words.get(pc));
+                    throw new RuntimeException("invalid syntax");
+                }
+
+                long start = System.nanoTime();
+                token.execute(context);
+                long end = System.nanoTime();
+                if(token instanceof Call) {
+                    profiler.enter(((Call)token).getName(), start);
+                } else if(token instanceof TailCall) {
+                    profiler.exit(start);
+                    profiler.enter(((TailCall)token).getCall().getName(), start);
+                } else if(token instanceof Exit) {
+                    profiler.exit(end);
+                } else {
+                    profiler.builtin(token, words, pc, end - start);
+                }
+                profiler.stacks(context.stackSize(), context.returnStackSize());
+            }
+        } catch(RuntimeException exception) {
+            profiler.abort();
+            throw exception;
+        }
+    }
+
+    public void defined(Call call) {
+        // Calls are bound by their address, nothing to do
+    }
+}
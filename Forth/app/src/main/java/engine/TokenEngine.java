@@ -0,0 +1,64 @@
+package engine;
+
+import context.Context;
+import data_types.MutableInt;
+import tokens.Token;
+import tokens.constructions.Call;
+import trace.ExecutionTrace;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import java.util.List;
+
+/**
+ * {@code TokenEngine} interprets code space token by token: every token is executed
+ * by {@code Token.execute} and changes program counter in case of jump
+ */
+public class TokenEngine implements Engine {
+    private final List<String> words;
+    private final List<Token> code;
+    private final Context context;
+    private final MutableInt programCounter;
+    private final ExecutionTrace trace;
+    private static final Logger logger = LogManager.getLogger(TokenEngine.class);
+
+    /**
+     * @param words Words of code space
+     * @param code Code space
+     * @param context context of execution
+     * @param programCounter Program counter of context
+     * @param trace Trace of executed tokens or null
+     */
+    public TokenEngine(List<String> words, List<Token> code, Context context, MutableInt programCounter,
+                       ExecutionTrace trace) {
+        this.words = words;
+        this.code = code;
+        this.context = context;
+        this.programCounter = programCounter;
+        this.trace = trace;
+    }
+
+    /**
+     * Self-defined commands jump back and forth inside of code space, so
+     * line(which is always placed at the end) finishes interpretation
+     */
+    public void execute(int address) {
+        programCounter.set(address);
+        for(int pc = address; pc < code.size(); pc = programCounter.incrementAndGet()) {
+            Token token = code.get(pc);
+            if(trace != null) {
+                trace.record(words.get(pc), pc, context.stackSize());
+            }
+            if(token == null) {
+                logger.error("Token {} unresolved", words.get(pc));
+                throw new RuntimeException("invalid syntax");
+            }
+
+            token.execute(context);
+        }
+    }
+
+    public void defined(Call call) {
+        // Calls are bound by their address, nothing to do
+    }
+}
@@ -0,0 +1,7 @@
+package exceptions;
+
+public class ImageException extends RuntimeException {
+    public ImageException(String info) {
+        super(info);
+    }
+}
@@ -0,0 +1,7 @@
+package exceptions;
+
+public class InterruptException extends RuntimeException {
+    public InterruptException(String info) {
+        super(info);
+    }
+}
@@ -0,0 +1,7 @@
+package exceptions;
+
+public class MemoryException extends RuntimeException {
+    public MemoryException(String info) {
+        super(info);
+    }
+}
@@ -0,0 +1,15 @@
+package exceptions;
+
+// Error of script, which knows the line where it happened
+public class ScriptException extends RuntimeException {
+    private final int line;
+
+    public ScriptException(String info, int line, Throwable cause) {
+        super(info, cause);
+        this.line = line;
+    }
+
+    public int getLine() {
+        return line;
+    }
+}
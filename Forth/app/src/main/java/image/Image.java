@@ -0,0 +1,300 @@
+package image;
+
+import data_types.DataSpace;
+import exceptions.ImageException;
+import tokens.Jump;
+import tokens.Token;
+import tokens.constructions.Call;
+import tokens.constructions.Exit;
+import tokens.constructions.TailCall;
+import tokens.instructions.Literal;
+import tokens.superinstructions.LiteralSuperinstruction;
+import tokens.superinstructions.Superinstruction;
+import tokens.superinstructions.VerifiedBlock;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+
+/**
+ * {@code Image} is compiled dictionary saved to binary file: code space of definitions,
+ * commands with their addresses, base and used data space. Loading of image doesn't
+ * parse and compile anything, file is mapped to memory and read by one pass.
+ * <p>
+ *     Every word is written once to table of symbols, cells of code refer to it by index.
+ *     Cell keeps kind of token and its operand:
+ *     <p>token - basic command found by word of cell, jump keeps its target</p>
+ *     <p>literal - number, which is kept as value</p>
+ *     <p>call - command called by name</p>
+ *     <p>exit - end of definition</p>
+ *     Superinstructions, verified blocks and tail calls are saved as tokens they were made of, so
+ *     they are placed again after loading
+ * </p>
+ * Format: magic, version, byte order of data space, base, symbols, commands, cells, data
+ */
+public class Image {
+    private static final int MAGIC = 0x46544849; // FTHI
+    private static final int VERSION = 1;
+
+    private static final byte NONE = 0;
+    private static final byte TOKEN = 1;
+    private static final byte JUMP = 2;
+    private static final byte LITERAL = 3;
+    private static final byte CALL = 4;
+    private static final byte EXIT = 5;
+
+    private final int base;
+    private final String[] names;
+    private final int[] addresses;
+    private final boolean[] defined;
+    private final String[] words;
+    private final byte[] kinds;
+    private final int[] operands;
+    private final ByteBuffer data;
+
+    private Image(ByteBuffer buffer) {
+        if(buffer.getInt() != MAGIC || buffer.getInt() != VERSION) {
+            throw new ImageException("file isn't an image");
+        }
+        ByteOrder order = buffer.get() == 0 ? ByteOrder.BIG_ENDIAN : ByteOrder.LITTLE_ENDIAN;
+        if(order != ByteOrder.nativeOrder()) {
+            throw new ImageException("image was saved with other byte order");
+        }
+        base = buffer.getInt();
+
+        String[] symbols = new String[buffer.getInt()];
+        for(int i = 0; i < symbols.length; ++i) {
+            byte[] bytes = new byte[buffer.getInt()];
+            buffer.get(bytes);
+            symbols[i] = new String(bytes, StandardCharsets.UTF_8);
+        }
+
+        names = new String[buffer.getInt()];
+        addresses = new int[names.length];
+        defined = new boolean[names.length];
+        for(int i = 0; i < names.length; ++i) {
+            names[i] = symbols[buffer.getInt()];
+            addresses[i] = buffer.getInt();
+            defined[i] = buffer.get() != 0;
+        }
+
+        words = new String[buffer.getInt()];
+        kinds = new byte[words.length];
+        operands = new int[words.length];
+        for(int i = 0; i < words.length; ++i) {
+            words[i] = symbols[buffer.getInt()];
+            kinds[i] = buffer.get();
+            if(kinds[i] == JUMP || kinds[i] == LITERAL || kinds[i] == CALL) {
+                operands[i] = buffer.getInt();
+            }
+        }
+
+        int size = buffer.getInt();
+        data = buffer.slice(buffer.position(), size);
+    }
+
+    /**
+     * Writes image of dictionary
+     * @param path Path of image file, it's replaced
+     * @param words Words of code space
+     * @param code Compiled definitions, code space doesn't contain line
+     * @param calls Every {@code Call} of code by name of command
+     * @param defined Names of self-defined commands
+     * @param base Base of numeral system
+     * @param dataSpace Memory of variables and arrays
+     * @throws IOException In case of failed writing
+     * @throws ImageException If code contains token which can't be saved
+     */
+    public static void save(Path path, List<String> words, List<Token> code, Map<String, Call> calls,
+                            Set<String> defined, int base, DataSpace dataSpace) throws IOException {
+        // Names of commands are the first symbols, so index of name is index of command too
+        Map<String, Integer> symbols = new LinkedHashMap<>();
+        for(String name : calls.keySet()) {
+            symbols.putIfAbsent(name, symbols.size());
+        }
+        for(String word : words) {
+            symbols.putIfAbsent(word, symbols.size());
+        }
+
+        try(DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(path)))) {
+            out.writeInt(MAGIC);
+            out.writeInt(VERSION);
+            out.writeByte(ByteOrder.nativeOrder() == ByteOrder.BIG_ENDIAN ? 0 : 1);
+            out.writeInt(base);
+
+            out.writeInt(symbols.size());
+            for(String symbol : symbols.keySet()) {
+                byte[] bytes = symbol.getBytes(StandardCharsets.UTF_8);
+                out.writeInt(bytes.length);
+                out.write(bytes);
+            }
+
+            out.writeInt(calls.size());
+            for(Call call : calls.values()) {
+                out.writeInt(symbols.get(call.getName()));
+                out.writeInt(call.getAddress());
+                out.writeByte(defined.contains(call.getName()) ? 1 : 0);
+            }
+
+            out.writeInt(code.size());
+            for(int i = 0; i < code.size(); ++i) {
+                out.writeInt(symbols.get(words.get(i)));
+                writeCell(out, words.get(i), code.get(i), symbols);
+            }
+
+            ByteBuffer used = dataSpace.used();
+            out.writeInt(used.remaining());
+            byte[] bytes = new byte[used.remaining()];
+            used.get(bytes);
+            out.write(bytes);
+        }
+    }
+
+    /**
+     * Maps image file to memory and reads it
+     * @param path Path of image file
+     * @return Image, which can be placed to interpreter
+     * @throws IOException In case of failed reading
+     * @throws ImageException If file isn't an image or it's broken
+     */
+    public static Image load(Path path) throws IOException {
+        try(FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            return new Image(buffer);
+        } catch(BufferUnderflowException | IndexOutOfBoundsException | NegativeArraySizeException exception) {
+            throw new ImageException("image is broken");
+        }
+    }
+
+    public int getBase() {
+        return base;
+    }
+
+    /**
+     * @return Used part of data space, it's valid while mapping of file is alive
+     */
+    public ByteBuffer getData() {
+        return data.duplicate();
+    }
+
+    /**
+     * @return Names of commands in order of their table
+     */
+    public String[] getNames() {
+        return names.clone();
+    }
+
+    /**
+     * @param index Index of command
+     * @return Address of definition or {@code Call.UNDEFINED} if command is only called
+     */
+    public int getAddress(int index) {
+        return addresses[index];
+    }
+
+    /**
+     * @param index Index of command
+     * @return True if command is defined by user
+     */
+    public boolean isDefined(int index) {
+        return defined[index];
+    }
+
+    /**
+     * @return Words of code space
+     */
+    public List<String> getWords() {
+        return List.of(words);
+    }
+
+    /**
+     * Creates tokens of code space
+     * @param builtins Gives token by word of basic command or null in case of unknown word
+     * @param calls Gives {@code Call} by name of command or null in case of unknown command
+     * @param exit Token which finishes definitions
+     * @return Linked code, superinstructions and tail calls aren't placed
+     * @throws ImageException If image refers to unknown command
+     */
+    public List<Token> code(Function<String, Token> builtins, Function<String, Call> calls, Token exit) {
+        List<Token> code = new ArrayList<>(words.length);
+        for(int i = 0; i < words.length; ++i) {
+            Token token;
+            switch(kinds[i]) {
+                case NONE:
+                    token = null;
+                    break;
+                case TOKEN:
+                case JUMP:
+                    token = builtins.apply(words[i]);
+                    if(token == null || (kinds[i] == JUMP) != token instanceof Jump) {
+                        throw new ImageException("unknown word " + words[i] + " in image");
+                    }
+                    if(token instanceof Jump) {
+                        ((Jump)token).setTarget(operands[i]);
+                    }
+                    break;
+                case LITERAL:
+                    token = new Literal(operands[i]);
+                    break;
+                case CALL:
+                    token = operands[i] >= 0 && operands[i] < names.length ? calls.apply(names[operands[i]]) : null;
+                    if(token == null) {
+                        throw new ImageException("unknown command in image");
+                    }
+                    break;
+                case EXIT:
+                    token = exit;
+                    break;
+                default:
+                    throw new ImageException("image is broken");
+            }
+            code.add(token);
+        }
+        return code;
+    }
+
+    private static void writeCell(DataOutputStream out, String word, Token token, Map<String, Integer> symbols)
+            throws IOException {
+        if(token instanceof VerifiedBlock) {
+            token = ((VerifiedBlock)token).get(0);
+        }
+        if(token == null) {
+            out.writeByte(NONE);
+        } else if(token instanceof Exit && word.equals(";")) {
+            out.writeByte(EXIT);
+        } else if(token instanceof Literal) {
+            out.writeByte(LITERAL);
+            out.writeInt(((Literal)token).get());
+        } else if(token instanceof LiteralSuperinstruction) {
+            out.writeByte(LITERAL);
+            out.writeInt(((LiteralSuperinstruction)token).getLiteral());
+        } else if(token instanceof Superinstruction) {
+            // Superinstruction without number begins with basic command of the same word
+            out.writeByte(TOKEN);
+        } else if(token instanceof Call || token instanceof TailCall) {
+            Call call = token instanceof Call ? (Call)token : ((TailCall)token).getCall();
+            out.writeByte(CALL);
+            out.writeInt(symbols.get(call.getName()));
+        } else if(token instanceof Jump) {
+            out.writeByte(JUMP);
+            out.writeInt(((Jump)token).getTarget());
+        } else {
+            out.writeByte(TOKEN);
+        }
+    }
+}
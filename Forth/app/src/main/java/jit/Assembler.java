@@ -0,0 +1,266 @@
+package jit;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * {@code Assembler} writes class file with only those parts, which are needed
+ * by {@code TieredCompiler}: constant pool, fields, methods with code and labels.
+ * Class file has version 49, so it's checked by verifier without stack map frames
+ * and jumps don't have to be described
+ * @see TieredCompiler
+ */
+final class Assembler {
+    static final int ACC_PUBLIC = 0x0001;
+    static final int ACC_PRIVATE = 0x0002;
+    static final int ACC_FINAL = 0x0010;
+    static final int ACC_SUPER = 0x0020;
+
+    static final int ILOAD = 0x15;
+    static final int ALOAD = 0x19;
+    static final int ISTORE = 0x36;
+    static final int ASTORE = 0x3a;
+    static final int AALOAD = 0x32;
+    static final int POP = 0x57;
+    static final int DUP = 0x59;
+    static final int IADD = 0x60;
+    static final int ISUB = 0x64;
+    static final int LSUB = 0x65;
+    static final int IMUL = 0x68;
+    static final int INEG = 0x74;
+    static final int IUSHR = 0x7c;
+    static final int LUSHR = 0x7d;
+    static final int IOR = 0x80;
+    static final int IXOR = 0x82;
+    static final int I2L = 0x85;
+    static final int L2I = 0x88;
+    static final int RETURN = 0xb1;
+    static final int IFEQ = 0x99;
+    static final int IF_ICMPEQ = 0x9f;
+    static final int GOTO = 0xa7;
+    static final int GETFIELD = 0xb4;
+    static final int PUTFIELD = 0xb5;
+    static final int INVOKEVIRTUAL = 0xb6;
+    static final int INVOKESPECIAL = 0xb7;
+    static final int CHECKCAST = 0xc0;
+
+    private static final int VERSION = 49;
+    private static final int MAX_OFFSET = Short.MAX_VALUE;
+
+    private final ByteArrayOutputStream pool = new ByteArrayOutputStream();
+    private final DataOutputStream poolOut = new DataOutputStream(pool);
+    private final Map<String, Integer> constants = new HashMap<>();
+    private int poolSize = 1;
+
+    private final ByteArrayOutputStream fields = new ByteArrayOutputStream();
+    private final DataOutputStream fieldsOut = new DataOutputStream(fields);
+    private final ByteArrayOutputStream methods = new ByteArrayOutputStream();
+    private final DataOutputStream methodsOut = new DataOutputStream(methods);
+    private int fieldsCount;
+    private int methodsCount;
+
+    private final ByteArrayOutputStream code = new ByteArrayOutputStream();
+    private int[] labels = new int[0];
+    private final List<int[]> jumps = new ArrayList<>(); // pairs [address of instruction] [label]
+
+    /**
+     * @param name Internal name of written class
+     * @return Index of class in constant pool
+     */
+    int classRef(String name) {
+        int nameIndex = utf8(name);
+        return constant("C" + name, 7, out -> out.writeShort(nameIndex));
+    }
+
+    int fieldRef(String owner, String name, String descriptor) {
+        return memberRef(9, owner, name, descriptor);
+    }
+
+    int methodRef(String owner, String name, String descriptor) {
+        return memberRef(10, owner, name, descriptor);
+    }
+
+    int utf8(String text) {
+        return constant("U" + text, 1, out -> out.writeUTF(text));
+    }
+
+    private int integer(int value) {
+        return constant("I" + value, 3, out -> out.writeInt(value));
+    }
+
+    private int memberRef(int tag, String owner, String name, String descriptor) {
+        int ownerIndex = classRef(owner);
+        int nameIndex = utf8(name);
+        int descriptorIndex = utf8(descriptor);
+        int nameAndType = constant("N" + name + " " + descriptor, 12, out -> {
+            out.writeShort(nameIndex);
+            out.writeShort(descriptorIndex);
+        });
+        return constant(tag + owner + "." + name + " " + descriptor, tag, out -> {
+            out.writeShort(ownerIndex);
+            out.writeShort(nameAndType);
+        });
+    }
+
+    private interface Entry {
+        void write(DataOutputStream out) throws IOException;
+    }
+
+    private int constant(String key, int tag, Entry entry) {
+        Integer index = constants.get(key);
+        if(index != null) {
+            return index;
+        }
+        try {
+            poolOut.writeByte(tag);
+            entry.write(poolOut);
+        } catch(IOException exception) {
+            throw new UncheckedIOException(exception);
+        }
+        constants.put(key, poolSize);
+        return poolSize++;
+    }
+
+    void field(int access, String name, String descriptor) {
+        try {
+            fieldsOut.writeShort(access);
+            fieldsOut.writeShort(utf8(name));
+            fieldsOut.writeShort(utf8(descriptor));
+            fieldsOut.writeShort(0);
+        } catch(IOException exception) {
+            throw new UncheckedIOException(exception);
+        }
+        ++fieldsCount;
+    }
+
+    /**
+     * Starts code of new method, labels of previous method are forgotten
+     * @param labelsCount Count of labels used by method
+     */
+    void beginCode(int labelsCount) {
+        code.reset();
+        jumps.clear();
+        labels = new int[labelsCount];
+        Arrays.fill(labels, -1);
+    }
+
+    /**
+     * Finishes method started by {@link #beginCode(int)}
+     * @throws IllegalStateException In case of too long method
+     */
+    void endCode(int access, String name, String descriptor, int maxStack, int maxLocals) {
+        byte[] bytes = code.toByteArray();
+        for(int[] jump : jumps) {
+            int offset = labels[jump[1]] - jump[0];
+            if(labels[jump[1]] < 0 || Math.abs(offset) > MAX_OFFSET) {
+                throw new IllegalStateException("jump can't be encoded");
+            }
+            bytes[jump[0] + 1] = (byte)(offset >> 8);
+            bytes[jump[0] + 2] = (byte)offset;
+        }
+        if(bytes.length >= 65535) {
+            throw new IllegalStateException("method is too long");
+        }
+
+        try {
+            methodsOut.writeShort(access);
+            methodsOut.writeShort(utf8(name));
+            methodsOut.writeShort(utf8(descriptor));
+            methodsOut.writeShort(1);
+            methodsOut.writeShort(utf8("Code"));
+            methodsOut.writeInt(12 + bytes.length);
+            methodsOut.writeShort(maxStack);
+            methodsOut.writeShort(maxLocals);
+            methodsOut.writeInt(bytes.length);
+            methodsOut.write(bytes);
+            methodsOut.writeShort(0); // exception table
+            methodsOut.writeShort(0); // attributes
+        } catch(IOException exception) {
+            throw new UncheckedIOException(exception);
+        }
+        ++methodsCount;
+    }
+
+    void label(int label) {
+        labels[label] = code.size();
+    }
+
+    void op(int opcode) {
+        code.write(opcode);
+    }
+
+    /**
+     * Instruction with two bytes operand(index of constant pool, sipush or jump)
+     */
+    void op(int opcode, int index) {
+        code.write(opcode);
+        code.write(index >> 8);
+        code.write(index);
+    }
+
+    void local(int opcode, int index) {
+        code.write(opcode);
+        code.write(index);
+    }
+
+    void jump(int opcode, int label) {
+        jumps.add(new int[] { code.size(), label });
+        op(opcode, 0);
+    }
+
+    void push(int value) {
+        if(value >= -1 && value <= 5) {
+            op(0x03 + value); // iconst_<value>
+        } else if(value >= Byte.MIN_VALUE && value <= Byte.MAX_VALUE) {
+            local(0x10, value & 0xff); // bipush
+        } else if(value >= Short.MIN_VALUE && value <= Short.MAX_VALUE) {
+            op(0x11, value & 0xffff); // sipush
+        } else {
+            op(0x13, integer(value)); // ldc_w
+        }
+    }
+
+    /**
+     * @return Bytes of class file
+     */
+    byte[] toByteArray(String name, String superName, String[] interfaces) {
+        int thisClass = classRef(name);
+        int superClass = classRef(superName);
+        int[] interfaceIndexes = new int[interfaces.length];
+        for(int i = 0; i < interfaces.length; ++i) {
+            interfaceIndexes[i] = classRef(interfaces[i]);
+        }
+
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try(DataOutputStream out = new DataOutputStream(bytes)) {
+            out.writeInt(0xCAFEBABE);
+            out.writeShort(0);
+            out.writeShort(VERSION);
+            out.writeShort(poolSize);
+            pool.writeTo(out);
+            out.writeShort(ACC_PUBLIC | ACC_FINAL | ACC_SUPER);
+            out.writeShort(thisClass);
+            out.writeShort(superClass);
+            out.writeShort(interfaceIndexes.length);
+            for(int index : interfaceIndexes) {
+                out.writeShort(index);
+            }
+
+            out.writeShort(fieldsCount);
+            fields.writeTo(out);
+            out.writeShort(methodsCount);
+            methods.writeTo(out);
+            out.writeShort(0); // attributes
+        } catch(IOException exception) {
+            throw new UncheckedIOException(exception);
+        }
+        return bytes.toByteArray();
+    }
+}
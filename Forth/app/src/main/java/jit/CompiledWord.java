@@ -0,0 +1,14 @@
+package jit;
+
+import context.Context;
+
+/**
+ * {@code CompiledWord} is self-defined command compiled to JVM bytecode by
+ * {@code TieredCompiler}. It's executed by {@code Call} instead of interpretation
+ * of definition, return address is already on return stack and it's removed by
+ * {@code Exit} of definition
+ * @see TieredCompiler
+ */
+public interface CompiledWord {
+    void execute(Context context);
+}
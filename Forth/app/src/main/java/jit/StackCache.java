@@ -0,0 +1,256 @@
+package jit;
+
+import data_types.DataSpace;
+import tokens.StackEffect;
+import tokens.instructions.*;
+import tokens.logical_operations.Equality;
+import tokens.logical_operations.Great;
+import tokens.logical_operations.Less;
+import tokens.memory.Cells;
+import tokens.operations.Minus;
+import tokens.operations.Multiplication;
+import tokens.operations.Plus;
+import tokens.superinstructions.*;
+
+/**
+ * {@code StackCache} writes tokens of {@code VerifiedBlock} as direct operations on
+ * {@code IntStack}. Top of stack is kept in local variable while it's possible, so
+ * sequence like {@code 1 + dup *} doesn't touch array of stack at all.
+ * <p>
+ *     Depth and room of stack are reserved by verification of block, so only unchecked
+ *     methods of stack are called. Top is written back before every token which isn't
+ *     known by cache and at the end of block
+ * </p>
+ * @see tokens.superinstructions.VerifiedBlock#verify(context.Context)
+ */
+final class StackCache {
+    static final int LOCALS = 4; // stack, top and two temporaries
+
+    private static final String CONTEXT = "context/Context";
+    private static final String STACK = "data_types/IntStack";
+
+    private final Assembler assembler;
+    private final int stackLocal;
+    private final int topLocal;
+    private final int tempLocal;
+    private final int secondTempLocal;
+    private boolean cached; // top of stack is in local instead of array
+
+    /**
+     * Loads stack of context to local variable
+     * @param contextLocal Local variable of context
+     * @param firstLocal First of {@link #LOCALS} local variables used by cache
+     */
+    StackCache(Assembler assembler, int contextLocal, int firstLocal) {
+        this.assembler = assembler;
+        stackLocal = firstLocal;
+        topLocal = firstLocal + 1;
+        tempLocal = firstLocal + 2;
+        secondTempLocal = firstLocal + 3;
+        assembler.local(Assembler.ALOAD, contextLocal);
+        assembler.op(Assembler.INVOKEVIRTUAL, assembler.methodRef(CONTEXT, "stackGet", "()L" + STACK + ";"));
+        assembler.local(Assembler.ASTORE, stackLocal);
+    }
+
+    /**
+     * Writes token as operations on stack
+     * @return False if token isn't known, nothing is written then
+     */
+    boolean write(StackEffect token) {
+        if(token instanceof Literal) {
+            spill();
+            assembler.push(((Literal)token).get());
+            assembler.local(Assembler.ISTORE, topLocal);
+            cached = true;
+        } else if(token instanceof Plus) {
+            binary(Assembler.IADD);
+        } else if(token instanceof Minus) {
+            binary(Assembler.ISUB);
+        } else if(token instanceof Multiplication) {
+            binary(Assembler.IMUL);
+        } else if(token instanceof PlusLiteral) {
+            literal((LiteralSuperinstruction)token, Assembler.IADD);
+        } else if(token instanceof MinusLiteral) {
+            literal((LiteralSuperinstruction)token, Assembler.ISUB);
+        } else if(token instanceof MultiplicationLiteral) {
+            literal((LiteralSuperinstruction)token, Assembler.IMUL);
+        } else if(token instanceof Square) {
+            load();
+            assembler.local(Assembler.ILOAD, topLocal);
+            assembler.local(Assembler.ILOAD, topLocal);
+            assembler.op(Assembler.IMUL);
+            assembler.local(Assembler.ISTORE, topLocal);
+        } else if(token instanceof Cells) {
+            load();
+            assembler.local(Assembler.ILOAD, topLocal);
+            assembler.push(DataSpace.CELL);
+            assembler.op(Assembler.IMUL);
+            assembler.local(Assembler.ISTORE, topLocal);
+        } else if(token instanceof Equality) {
+            load();
+            pop();
+            assembler.local(Assembler.ILOAD, topLocal);
+            equal();
+        } else if(token instanceof EqualityLiteral) {
+            load();
+            assembler.local(Assembler.ILOAD, topLocal);
+            assembler.push(((LiteralSuperinstruction)token).getLiteral());
+            equal();
+        } else if(token instanceof Less || token instanceof Great) {
+            // a < b is the same as b > a
+            load();
+            if(token instanceof Less) {
+                pop();
+                assembler.op(Assembler.I2L);
+                assembler.local(Assembler.ILOAD, topLocal);
+                assembler.op(Assembler.I2L);
+            } else {
+                assembler.local(Assembler.ILOAD, topLocal);
+                assembler.op(Assembler.I2L);
+                pop();
+                assembler.op(Assembler.I2L);
+            }
+            less();
+        } else if(token instanceof LessLiteral || token instanceof GreatLiteral) {
+            load();
+            int literal = ((LiteralSuperinstruction)token).getLiteral();
+            if(token instanceof LessLiteral) {
+                assembler.local(Assembler.ILOAD, topLocal);
+                assembler.op(Assembler.I2L);
+                assembler.push(literal);
+                assembler.op(Assembler.I2L);
+            } else {
+                assembler.push(literal);
+                assembler.op(Assembler.I2L);
+                assembler.local(Assembler.ILOAD, topLocal);
+                assembler.op(Assembler.I2L);
+            }
+            less();
+        } else if(token instanceof Dup) {
+            load();
+            push(topLocal);
+        } else if(token instanceof Drop) {
+            if(cached) {
+                cached = false;
+            } else {
+                pop();
+                assembler.op(Assembler.POP);
+            }
+        } else if(token instanceof Nip) {
+            load();
+            pop();
+            assembler.op(Assembler.POP);
+        } else if(token instanceof Swap) {
+            load();
+            pop();
+            assembler.local(Assembler.ISTORE, tempLocal);
+            push(topLocal);
+            assembler.local(Assembler.ILOAD, tempLocal);
+            assembler.local(Assembler.ISTORE, topLocal);
+        } else if(token instanceof Over) {
+            load();
+            peek();
+            assembler.local(Assembler.ISTORE, tempLocal);
+            push(topLocal);
+            assembler.local(Assembler.ILOAD, tempLocal);
+            assembler.local(Assembler.ISTORE, topLocal);
+        } else if(token instanceof TwoDup) {
+            load();
+            peek();
+            assembler.local(Assembler.ISTORE, tempLocal);
+            push(topLocal);
+            push(tempLocal);
+        } else if(token instanceof Rot) {
+            // a b c -- c a b
+            load();
+            pop();
+            assembler.local(Assembler.ISTORE, tempLocal);
+            pop();
+            assembler.local(Assembler.ISTORE, secondTempLocal);
+            push(topLocal);
+            push(secondTempLocal);
+            assembler.local(Assembler.ILOAD, tempLocal);
+            assembler.local(Assembler.ISTORE, topLocal);
+        } else {
+            return false;
+        }
+        return true;
+    }
+
+    /**
+     * Writes top back to stack, it's needed before token which works with context
+     */
+    void spill() {
+        if(cached) {
+            push(topLocal);
+            cached = false;
+        }
+    }
+
+    // Moves top of stack to local if it isn't there
+    private void load() {
+        if(!cached) {
+            pop();
+            assembler.local(Assembler.ISTORE, topLocal);
+            cached = true;
+        }
+    }
+
+    // second op top
+    private void binary(int opcode) {
+        load();
+        pop();
+        assembler.local(Assembler.ILOAD, topLocal);
+        assembler.op(opcode);
+        assembler.local(Assembler.ISTORE, topLocal);
+    }
+
+    // top op literal
+    private void literal(LiteralSuperinstruction token, int opcode) {
+        load();
+        assembler.local(Assembler.ILOAD, topLocal);
+        assembler.push(token.getLiteral());
+        assembler.op(opcode);
+        assembler.local(Assembler.ISTORE, topLocal);
+    }
+
+    // Two ints become 1 if they are equal and 0 otherwise: ((x | -x) >>> 31) ^ 1, where x = a ^ b
+    private void equal() {
+        assembler.op(Assembler.IXOR);
+        assembler.op(Assembler.DUP);
+        assembler.op(Assembler.INEG);
+        assembler.op(Assembler.IOR);
+        assembler.push(31);
+        assembler.op(Assembler.IUSHR);
+        assembler.push(1);
+        assembler.op(Assembler.IXOR);
+        assembler.local(Assembler.ISTORE, topLocal);
+    }
+
+    // Two longs a, b become 1 if a < b and 0 otherwise: difference of ints can't overflow in long
+    private void less() {
+        assembler.op(Assembler.LSUB);
+        assembler.push(63);
+        assembler.op(Assembler.LUSHR);
+        assembler.op(Assembler.L2I);
+        assembler.local(Assembler.ISTORE, topLocal);
+    }
+
+    // Value below cached top is left on operand stack
+    private void pop() {
+        assembler.local(Assembler.ALOAD, stackLocal);
+        assembler.op(Assembler.INVOKEVIRTUAL, assembler.methodRef(STACK, "popUnchecked", "()I"));
+    }
+
+    private void peek() {
+        assembler.local(Assembler.ALOAD, stackLocal);
+        assembler.op(Assembler.INVOKEVIRTUAL, assembler.methodRef(STACK, "peekUnchecked", "()I"));
+    }
+
+    // Value of local is pushed to array of stack
+    private void push(int local) {
+        assembler.local(Assembler.ALOAD, stackLocal);
+        assembler.local(Assembler.ILOAD, local);
+        assembler.op(Assembler.INVOKEVIRTUAL, assembler.methodRef(STACK, "pushUnchecked", "(I)V"));
+    }
+}
@@ -0,0 +1,365 @@
+package jit;
+
+import context.Context;
+import tokens.Jump;
+import tokens.StackEffect;
+import tokens.Token;
+import tokens.constructions.*;
+import tokens.instructions.Literal;
+import tokens.superinstructions.Superinstruction;
+import tokens.superinstructions.VerifiedBlock;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Modifier;
+import java.nio.ByteBuffer;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * {@code TieredCompiler} compiles hot self-defined commands to JVM bytecode. Each
+ * definition becomes hidden class, where every token is executed by direct call of
+ * its own class and constructions are jumps of bytecode, so there is neither
+ * dispatch of {@code Token} nor program counter loop and HotSpot can inline whole
+ * definition.
+ * <p>
+ *     Tokens are the same as in interpretation(stack, return stack and frames of
+ *     cycles are used in the same way), so compiled command works exactly as interpreted.
+ *     Commands called by compiled code are executed till their end: compiled ones
+ *     directly and others by nested interpretation. Redefinition returns command to
+ *     interpretation, calls of it are late-bound in the same way as in interpretation.
+ *     Tail recursion is compiled to jump, other tail calls are ordinary calls.
+ *     Stack is checked once for every {@code VerifiedBlock}, its arithmetic, comparisons and stack
+ *     words are written as direct operations on stack with top kept in local variable, the rest
+ *     of its tokens are called without checks.
+ * </p>
+ * <p>
+ *     Modes({@code -Dforth.jit}): interpreter - nothing is compiled, tiered - command is
+ *     compiled after {@code forth.jit.threshold} calls, all - command is compiled before
+ *     its first execution
+ * </p>
+ * @see Call
+ */
+public class TieredCompiler {
+    public static final int DEFAULT_THRESHOLD = 1000;
+    public static final int MAX_DEPTH = 1024;
+
+    private static final String CLASS_NAME = "jit/CompiledDefinition";
+    private static final String OBJECT = "java/lang/Object";
+    private static final String TOKENS = "[Ltokens/Token;";
+    private static final String CONTEXT = "context/Context";
+    private static final String EXECUTE = "(Lcontext/Context;)V";
+    private static final int THIS = 0;
+    private static final int CONTEXT_LOCAL = 1;
+    private static final int TOKENS_LOCAL = 2;
+    private static final int CACHE_LOCAL = 3;
+    private static final int MAX_LOCALS = CACHE_LOCAL + StackCache.LOCALS;
+
+    private final List<String> words;
+    private final List<Token> code;
+    private final int threshold;
+    private int depth;
+    private static final MethodHandles.Lookup lookup = MethodHandles.lookup();
+    // Equal definitions get equal classes, they are shared, so HotSpot compiles them once
+    private static final Map<ByteBuffer, MethodHandle> classes = new ConcurrentHashMap<>();
+    private static final int MAX_CLASSES = 4096;
+    private static final Logger logger = LogManager.getLogger(TieredCompiler.class);
+
+    /**
+     * @param words Words of code space
+     * @param code Code space with compiled definitions
+     * @param threshold Count of calls after which command is compiled
+     */
+    public TieredCompiler(List<String> words, List<Token> code, int threshold) {
+        this.words = words;
+        this.code = code;
+        this.threshold = threshold;
+    }
+
+    public int getThreshold() {
+        return threshold;
+    }
+
+    /**
+     * Compiles definition of command, nothing is compiled if definition
+     * can't be compiled
+     * @param call Hot command
+     * @return True in case of success
+     */
+    public boolean compile(Call call) {
+        int end = end(call.getAddress());
+        if(end < 0) {
+            logger.debug("Command {} can't be compiled", call.getName());
+            return false;
+        }
+
+        try {
+            call.setCompiled(generate(call.getAddress(), end));
+        } catch(Throwable exception) {
+            logger.debug("Compilation of command {} failed", call.getName(), exception);
+            return false;
+        }
+        logger.debug("Command {} compiled", call.getName());
+        return true;
+    }
+
+    /**
+     * Compiled commands call each other through JVM stack, so their depth is limited.
+     * Deeper calls are interpreted
+     * @return False if compiled command can't be entered
+     */
+    public boolean enter() {
+        if(depth == MAX_DEPTH) {
+            return false;
+        }
+        ++depth;
+        return true;
+    }
+
+    public void leave() {
+        --depth;
+    }
+
+    /**
+     * Interprets command called by compiled code till its {@code Exit}, return
+     * address must be on top of return stack
+     * @param address Address of definition
+     * @param context context of execution
+     */
+    public void interpret(int address, Context context) {
+        int returnStackSize = context.returnStackSize();
+        context.programCounterSet(address);
+        while(context.returnStackSize() >= returnStackSize) {
+            int pc = context.programCounterGet();
+            Token token = code.get(pc);
+            if(token == null) {
+                logger.error("Token {} unresolved", words.get(pc));
+                throw new RuntimeException("invalid syntax");
+            }
+
+            token.execute(context);
+            context.programCounterSet(context.programCounterGet() + 1);
+        }
+    }
+
+    /**
+     * @param address Address of definition
+     * @return Index of ';' of definition or -1 if it can't be compiled
+     */
+    private int end(int address) {
+        if(address == Call.UNDEFINED) {
+            return -1;
+        }
+        for(int i = address; i < code.size(); ++i) {
+            Token token = code.get(i);
+            if(token instanceof Command || token instanceof Recurse) {
+                return -1;
+            }
+            if(token instanceof Exit && words.get(i).equals(";")) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Writes class of definition and creates its instance
+     * @param address Index of first token of definition
+     * @param end Index of ';' of definition
+     */
+    private CompiledWord generate(int address, int end) throws Throwable {
+        Token[] tokens = code.subList(address, end + 1).toArray(new Token[0]);
+        Assembler assembler = new Assembler();
+        assembler.field(Assembler.ACC_PRIVATE | Assembler.ACC_FINAL, "tokens", TOKENS);
+        int tokensField = assembler.fieldRef(CLASS_NAME, "tokens", TOKENS);
+
+        assembler.beginCode(0);
+        assembler.local(Assembler.ALOAD, THIS);
+        assembler.op(Assembler.INVOKESPECIAL, assembler.methodRef(OBJECT, "<init>", "()V"));
+        assembler.local(Assembler.ALOAD, THIS);
+        assembler.local(Assembler.ALOAD, 1);
+        assembler.op(Assembler.PUTFIELD, tokensField);
+        assembler.op(Assembler.RETURN);
+        assembler.endCode(Assembler.ACC_PUBLIC, "<init>", "(" + TOKENS + ")V", 2, 2);
+
+        assembler.beginCode(tokens.length);
+        assembler.local(Assembler.ALOAD, THIS);
+        assembler.op(Assembler.GETFIELD, tokensField);
+        assembler.local(Assembler.ASTORE, TOKENS_LOCAL);
+        int skipped = 0; // tokens replaced by superinstruction aren't reachable
+        for(int i = 0; i < tokens.length; ++i) {
+            assembler.label(i);
+            if(tokens[i] == null || i < skipped) {
+                continue; // content of string or ';' after construction
+            }
+            skipped = emit(assembler, tokens, i, address);
+        }
+        assembler.endCode(Assembler.ACC_PUBLIC, "execute", EXECUTE, 4, MAX_LOCALS);
+
+        byte[] bytes = assembler.toByteArray(CLASS_NAME, OBJECT, new String[] { "jit/CompiledWord" });
+        MethodHandle constructor = classes.get(ByteBuffer.wrap(bytes));
+        if(constructor == null) {
+            MethodHandles.Lookup definition = lookup.defineHiddenClass(bytes, true);
+            constructor = definition.findConstructor(definition.lookupClass(),
+                    MethodType.methodType(void.class, Token[].class));
+            if(classes.size() < MAX_CLASSES) {
+                classes.putIfAbsent(ByteBuffer.wrap(bytes), constructor);
+            }
+        }
+        return (CompiledWord)constructor.invoke(tokens);
+    }
+
+    /**
+     * Writes bytecode of single token
+     * @param index Index of token in definition
+     * @param address Index of definition in code space
+     * @return Index of the first token which isn't replaced by this one
+     */
+    private static int emit(Assembler assembler, Token[] tokens, int index, int address) {
+        Token token = tokens[index];
+        int pc = address + index;
+
+        if(token instanceof Literal) {
+            assembler.local(Assembler.ALOAD, CONTEXT_LOCAL);
+            assembler.push(((Literal)token).get());
+            assembler.op(Assembler.INVOKEVIRTUAL, assembler.methodRef(CONTEXT, "stackPush", "(I)V"));
+        } else if(token instanceof Then) {
+            assembler.jump(Assembler.GOTO, index + 2);
+        } else if(token instanceof Else) {
+            assembler.jump(Assembler.GOTO, label(tokens, (Jump)token, address));
+        } else if(token instanceof Exit) {
+            execute(assembler, tokens, index);
+            assembler.op(Assembler.RETURN);
+        } else if(token instanceof Leave) {
+            execute(assembler, tokens, index);
+            assembler.jump(Assembler.GOTO, label(tokens, (Jump)token, address));
+        } else if(token instanceof Jump) {
+            // Token leaves program counter or sets it to its target
+            int next = token instanceof Superinstruction ? index + ((Superinstruction)token).size() : index + 1;
+            setProgramCounter(assembler, pc);
+            execute(assembler, tokens, index);
+            branch(assembler, address + next - 1, next, label(tokens, (Jump)token, address));
+            return next;
+        } else if(token instanceof Loop || token instanceof PlusLoop) {
+            // Loop continues after ';' or jumps back to its do
+            setProgramCounter(assembler, pc);
+            execute(assembler, tokens, index);
+            branch(assembler, pc + 1, index + 2, matchingDo(tokens, pc) + 1);
+        } else if(token instanceof VerifiedBlock) {
+            // Block which isn't verified at run time is already executed with checks
+            VerifiedBlock block = (VerifiedBlock)token;
+            int next = index + block.size();
+            execute(assembler, tokens, index, "verify", "(Lcontext/Context;)Z");
+            assembler.jump(Assembler.IFEQ, next);
+            StackCache cache = new StackCache(assembler, CONTEXT_LOCAL, CACHE_LOCAL);
+            for(int i = 0; i < block.length(); ++i) {
+                if(!cache.write(block.get(i))) {
+                    cache.spill();
+                    executeUnchecked(assembler, block, index, i);
+                }
+            }
+            cache.spill();
+            return next;
+        } else if(token instanceof Superinstruction) {
+            execute(assembler, tokens, index);
+            return index + ((Superinstruction)token).size();
+        } else if(token instanceof TailCall && ((TailCall)token).getCall().getAddress() == address) {
+            // Tail recursion is a jump to the beginning of definition, it's interrupted as a call
+            assembler.local(Assembler.ALOAD, CONTEXT_LOCAL);
+            assembler.op(Assembler.INVOKEVIRTUAL, assembler.methodRef(CONTEXT, "interruptedCheck", "()V"));
+            assembler.jump(Assembler.GOTO, 0);
+        } else if(token instanceof Call || token instanceof TailCall) {
+            // Compiled code can't return to interpretation loop, so command is executed till its end
+            setProgramCounter(assembler, pc);
+            execute(assembler, tokens, index, "invoke");
+        } else if(token instanceof PrintString) {
+            // String is found by program counter
+            setProgramCounter(assembler, pc);
+            execute(assembler, tokens, index);
+        } else {
+            execute(assembler, tokens, index);
+        }
+        return index + 1;
+    }
+
+    private static void execute(Assembler assembler, Token[] tokens, int index) {
+        execute(assembler, tokens, index, "execute");
+    }
+
+    private static void execute(Assembler assembler, Token[] tokens, int index, String method) {
+        execute(assembler, tokens, index, method, EXECUTE);
+    }
+
+    // tokens[index].method(context) called directly on class of token
+    private static void execute(Assembler assembler, Token[] tokens, int index, String method, String descriptor) {
+        String name = name(tokens[index]);
+        assembler.local(Assembler.ALOAD, TOKENS_LOCAL);
+        assembler.push(index);
+        assembler.op(Assembler.AALOAD);
+        assembler.op(Assembler.CHECKCAST, assembler.classRef(name));
+        assembler.local(Assembler.ALOAD, CONTEXT_LOCAL);
+        assembler.op(Assembler.INVOKEVIRTUAL, assembler.methodRef(name, method, descriptor));
+    }
+
+    // tokens[index].get(position).executeUnchecked(context) called directly on class of token from block
+    private static void executeUnchecked(Assembler assembler, VerifiedBlock block, int index, int position) {
+        StackEffect token = block.get(position);
+        String name = name(token);
+        String blockName = name(block);
+        assembler.local(Assembler.ALOAD, TOKENS_LOCAL);
+        assembler.push(index);
+        assembler.op(Assembler.AALOAD);
+        assembler.op(Assembler.CHECKCAST, assembler.classRef(blockName));
+        assembler.push(position);
+        assembler.op(Assembler.INVOKEVIRTUAL, assembler.methodRef(blockName, "get", "(I)Ltokens/StackEffect;"));
+        assembler.op(Assembler.CHECKCAST, assembler.classRef(name));
+        assembler.local(Assembler.ALOAD, CONTEXT_LOCAL);
+        assembler.op(Assembler.INVOKEVIRTUAL, assembler.methodRef(name, "executeUnchecked", EXECUTE));
+    }
+
+    // Internal name of token's class, which must be accessible from compiled code
+    private static String name(Token token) {
+        Class<?> type = token.getClass();
+        if(!Modifier.isPublic(type.getModifiers()) || type.isAnonymousClass()) {
+            throw new IllegalStateException("token " + type + " isn't accessible");
+        }
+        return type.getName().replace('.', '/');
+    }
+
+    private static void setProgramCounter(Assembler assembler, int pc) {
+        assembler.local(Assembler.ALOAD, CONTEXT_LOCAL);
+        assembler.push(pc);
+        assembler.op(Assembler.INVOKEVIRTUAL, assembler.methodRef(CONTEXT, "programCounterSet", "(I)V"));
+    }
+
+    // Goes to label next if program counter equals to pc, otherwise goes to label other
+    private static void branch(Assembler assembler, int pc, int next, int other) {
+        assembler.local(Assembler.ALOAD, CONTEXT_LOCAL);
+        assembler.op(Assembler.INVOKEVIRTUAL, assembler.methodRef(CONTEXT, "programCounterGet", "()I"));
+        assembler.push(pc);
+        assembler.jump(Assembler.IF_ICMPEQ, next);
+        assembler.jump(Assembler.GOTO, other);
+    }
+
+    // Execution continues after target, it must be inside of definition
+    private static int label(Token[] tokens, Jump jump, int address) {
+        int label = jump.getTarget() + 1 - address;
+        if(label <= 0 || label >= tokens.length) {
+            throw new IllegalStateException("target is outside of definition");
+        }
+        return label;
+    }
+
+    private static int matchingDo(Token[] tokens, int pc) {
+        for(int i = 0; i < tokens.length; ++i) {
+            if(tokens[i] instanceof Do && ((Do)tokens[i]).getTarget() == pc + 1) {
+                return i;
+            }
+        }
+        throw new IllegalStateException("loop without do");
+    }
+}
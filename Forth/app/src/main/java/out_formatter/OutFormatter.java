@@ -1,52 +1,182 @@
 package out_formatter;
 
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.channels.Channels;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
 /**
  * {@code OutFormatter} is a simple class for only output formatting.
  * It helps with printing exceptions from whole program and hoards data
- * for printing it in console by flush()
+ * for printing it by flush()
  * @see #flush
  * <p>
+ *     Every interpreter has its own {@code OutFormatter}. Data is hoarded in growable
+ *     char buffer and written directly to {@code Writer}(or {@code WritableByteChannel}).
+ *     When buffer reaches flush threshold its content is written immediately, so
+ *     long output never has to be kept in memory as a whole. Marker is written before
+ *     the first written part, so REPL can tell where output of line begins and print
+ *     its answer after it
+ * </p>
+ * <p>
  *     The main {@code OutFormatter} task is cover needs of Forth class,
  *     so there are no extra functions
  * </p>
  */
 public class OutFormatter {
-    private static String buffer = "";
+    public static final int DEFAULT_THRESHOLD = 8192;
+    private static final int INITIAL_CAPACITY = 128;
+
+    private final Writer writer;
+    private final int threshold;
+    private char[] buffer = new char[INITIAL_CAPACITY];
+    private int size = 0;
+    private boolean written = false;
+    private String marker = "";
+
+    /**
+     * @param writer Destination of output
+     * @param threshold Amount of hoarded chars after which they are written without waiting for flush()
+     */
+    public OutFormatter(Writer writer, int threshold) {
+        this.writer = writer;
+        this.threshold = Math.max(threshold, 1);
+    }
+
+    public OutFormatter(Writer writer) {
+        this(writer, DEFAULT_THRESHOLD);
+    }
 
-    public OutFormatter() { }
+    public OutFormatter(OutputStream stream) {
+        this(new OutputStreamWriter(stream, Charset.defaultCharset()));
+    }
+
+    public OutFormatter(WritableByteChannel channel) {
+        this(Channels.newWriter(channel, StandardCharsets.UTF_8));
+    }
 
     /**
-     * Appends value to main string buffer
+     * Appends value to buffer
      * @param string Value which will be added to buffer
      */
     public void append(String string) {
-        buffer = buffer + string + " ";
+        int length = string.length();
+        ensureCapacity(length + 1);
+        string.getChars(0, length, buffer, size);
+        size += length;
+        buffer[size++] = ' ';
+        spill();
+    }
+
+    /**
+     * Appends part of text to buffer
+     * @param text Text which contains value
+     * @param begin Index of first character of value
+     * @param end Index after last character of value
+     */
+    public void append(CharSequence text, int begin, int end) {
+        ensureCapacity(end - begin + 1);
+        for(int i = begin; i < end; ++i) {
+            buffer[size++] = text.charAt(i);
+        }
+        buffer[size++] = ' ';
+        spill();
+    }
+
+    /**
+     * Appends symbol to buffer
+     * @param symbol Symbol which will be added to buffer
+     */
+    public void append(char symbol) {
+        ensureCapacity(2);
+        buffer[size++] = symbol;
+        buffer[size++] = ' ';
+        spill();
+    }
+
+    /**
+     * Appends number to buffer without creating a string for it
+     * @param value Number which will be added to buffer
+     * @param base Base of numeral system
+     */
+    public void append(int value, int base) {
+        ensureCapacity(34); // sign + 32 binary digits + space
+        long rest = value;
+        if(rest < 0) {
+            buffer[size++] = '-';
+            rest = -rest;
+        }
+
+        int begin = size;
+        do {
+            buffer[size++] = Character.toUpperCase(Character.forDigit((int)(rest % base), base));
+            rest /= base;
+        } while(rest != 0);
+
+        for(int i = begin, j = size - 1; i < j; ++i, --j) {
+            char temp = buffer[i];
+            buffer[i] = buffer[j];
+            buffer[j] = temp;
+        }
+        buffer[size++] = ' ';
+        spill();
+    }
+
+    /**
+     * @param marker Text written before buffer when it reaches threshold for the first time
+     * since the last flush, empty string for nothing
+     */
+    public void setMarker(String marker) {
+        this.marker = marker;
+    }
+
+    /**
+     * @return True if part of buffer is already written since the last flush
+     */
+    public boolean isSpilled() {
+        return written;
     }
 
     /**
-     * Reset of static buffer
+     * Reset of buffer
      */
     public void clear() {
-        buffer = "";
+        size = 0;
+        written = false;
     }
 
     /**
-     * Allow to check emptiness of string buffer
-     * @return true if buffer empty, false if there is at least one symbol in string buffer
+     * Allow to check emptiness of buffer
+     * @return true if nothing was appended since the last flush
      */
     public boolean isEmpty() {
-        return buffer.isEmpty();
+        return size == 0 && !written;
     }
 
     /**
-     * Flushes into console whole buffer and then
+     * Writes whole buffer with new line and then
      * clears it for future using
      */
     public void flush() {
-        if(buffer.isEmpty()) {
+        flush(true);
+    }
+
+    /**
+     * Writes whole buffer and then clears it for future using
+     * @param newLine True if new line is written after buffer
+     */
+    public void flush(boolean newLine) {
+        if(isEmpty()) {
             return;
         }
-        System.out.println(buffer);
+        write(buffer, size);
+        print(newLine ? "\n" : "");
         clear();
     }
 
@@ -55,7 +185,7 @@ public class OutFormatter {
      * @param exception Exception which will be printed
      */
     public void printError(Exception exception) {
-        System.out.println("error: " + exception.getMessage());
+        print("error: " + exception.getMessage() + "\n");
     }
 
     /**
@@ -63,14 +193,14 @@ public class OutFormatter {
      * taking input from Console/File
      */
     public void printReady() {
-        System.out.print("> ");
+        print("> ");
     }
 
     /**
      * Prints special symbol '<' which means correct interpretation
      */
     public void printAnswer() {
-        System.out.print("< ");
+        print("< ");
     }
 
     /**
@@ -78,6 +208,44 @@ public class OutFormatter {
      * a line from input
      */
     public void printAcceptance() {
-        System.out.println("ok");
+        print("ok\n");
+    }
+
+    private void print(String string) {
+        try {
+            writer.write(string);
+            writer.flush();
+        } catch(IOException exception) {
+            throw new UncheckedIOException(exception);
+        }
+    }
+
+    private void write(char[] chars, int length) {
+        try {
+            writer.write(chars, 0, length);
+        } catch(IOException exception) {
+            throw new UncheckedIOException(exception);
+        }
+    }
+
+    // Writes buffer without waiting for flush() in case of reaching threshold
+    private void spill() {
+        if(size < threshold) {
+            return;
+        }
+        if(!written) {
+            print(marker);
+            written = true;
+        }
+        // Buffer is taken before writing, so writer which fails doesn't get it twice
+        int length = size;
+        size = 0;
+        write(buffer, length);
+    }
+
+    private void ensureCapacity(int extra) {
+        if(size + extra > buffer.length) {
+            buffer = Arrays.copyOf(buffer, Math.max(buffer.length * 2, size + extra));
+        }
     }
 }
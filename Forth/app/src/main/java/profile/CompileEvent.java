@@ -0,0 +1,23 @@
+package profile;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * JFR event of compilation of line or definition
+ */
+@Name("forth.Compile")
+@Label("Forth Compile")
+@Category("Forth")
+@Description("Compilation of line or self-defined command to code space")
+public class CompileEvent extends Event {
+    @Label("Word")
+    @Description("Name of defined command, empty for line")
+    public String word;
+
+    @Label("Tokens")
+    public int tokens;
+}
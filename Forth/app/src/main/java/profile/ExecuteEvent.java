@@ -0,0 +1,23 @@
+package profile;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * JFR event of execution of compiled line
+ */
+@Name("forth.Execute")
+@Label("Forth Execute")
+@Category("Forth")
+@Description("Execution of line including self-defined commands called by it")
+public class ExecuteEvent extends Event {
+    @Label("Line")
+    public String line;
+
+    @Label("Address")
+    @Description("Address of line in code space")
+    public int address;
+}
@@ -0,0 +1,166 @@
+package profile;
+
+import tokens.Token;
+import tokens.instructions.Literal;
+import tokens.superinstructions.Superinstruction;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * {@code Profiler} counts executions and time of commands. Basic commands are leaves:
+ * their total time is their self time. Self-defined commands are measured from their
+ * {@code Call} till their {@code Exit}, self time excludes time of commands executed
+ * by them. Total time of recursive command is counted by its outermost execution only.
+ * <p>
+ *     Basic commands are kept by class of token, so numbers are counted together and
+ *     superinstruction is named by words it replaced. Self-defined commands are kept
+ *     by name. The deepest data and return stacks are remembered too
+ * </p>
+ * @see engine.ProfilingEngine
+ */
+public class Profiler {
+    private final Map<Class<?>, Entry> builtins = new HashMap<>();
+    private final Map<String, Entry> definitions = new HashMap<>();
+    private final Deque<Frame> frames = new ArrayDeque<>();
+    private int stackHighWater;
+    private int returnStackHighWater;
+
+    private static class Entry {
+        private final String name;
+        private final boolean definition;
+        private long count;
+        private long total;
+        private long self;
+        private int active;
+
+        private Entry(String name, boolean definition) {
+            this.name = name;
+            this.definition = definition;
+        }
+    }
+
+    // Execution of self-defined command
+    private static class Frame {
+        private final Entry entry;
+        private final long start;
+        private long children;
+
+        private Frame(Entry entry, long start) {
+            this.entry = entry;
+            this.start = start;
+        }
+    }
+
+    /**
+     * @param token Executed basic command
+     * @param words Words of code space, superinstruction is named by them
+     * @param address Address of token
+     * @param nanos Time of execution
+     */
+    public void builtin(Token token, List<String> words, int address, long nanos) {
+        Entry entry = builtins.get(token.getClass());
+        if(entry == null) {
+            entry = new Entry(name(token, words, address), false);
+            builtins.put(token.getClass(), entry);
+        }
+        ++entry.count;
+        entry.total += nanos;
+        entry.self += nanos;
+        if(!frames.isEmpty()) {
+            frames.peek().children += nanos;
+        }
+    }
+
+    /**
+     * Begins execution of self-defined command
+     * @param name Name of command
+     * @param now Time of call
+     */
+    public void enter(String name, long now) {
+        Entry entry = definitions.computeIfAbsent(name, key -> new Entry(key, true));
+        ++entry.count;
+        ++entry.active;
+        frames.push(new Frame(entry, now));
+    }
+
+    /**
+     * Finishes execution of the last entered command
+     * @param now Time of return
+     */
+    public void exit(long now) {
+        Frame frame = frames.poll();
+        if(frame == null) {
+            return;
+        }
+        long total = now - frame.start;
+        frame.entry.self += total - frame.children;
+        if(--frame.entry.active == 0) {
+            frame.entry.total += total;
+        }
+        if(!frames.isEmpty()) {
+            frames.peek().children += total;
+        }
+    }
+
+    /**
+     * @param stack Depth of data stack
+     * @param returnStack Depth of return stack
+     */
+    public void stacks(int stack, int returnStack) {
+        stackHighWater = Math.max(stackHighWater, stack);
+        returnStackHighWater = Math.max(returnStackHighWater, returnStack);
+    }
+
+    /**
+     * Drops unfinished executions after error, their time isn't counted
+     */
+    public void abort() {
+        for(Frame frame : frames) {
+            --frame.entry.active;
+        }
+        frames.clear();
+    }
+
+    public void clear() {
+        abort();
+        builtins.clear();
+        definitions.clear();
+        stackHighWater = 0;
+        returnStackHighWater = 0;
+    }
+
+    /**
+     * @return Table of commands sorted by self time, the slowest is the first
+     */
+    @Override
+    public String toString() {
+        List<Entry> entries = new ArrayList<>(definitions.values());
+        entries.addAll(builtins.values());
+        entries.sort(Comparator.comparingLong((Entry entry) -> entry.self).reversed());
+
+        StringBuilder report = new StringBuilder();
+        report.append(String.format("%-20s %-10s %12s %15s %15s%n", "word", "kind", "calls", "total ns", "self ns"));
+        for(Entry entry : entries) {
+            report.append(String.format("%-20s %-10s %12d %15d %15d%n", entry.name,
+                    entry.definition ? "colon" : "builtin", entry.count, entry.total, entry.self));
+        }
+        report.append(String.format("stack high-water: data %d, return %d%n", stackHighWater, returnStackHighWater));
+        return report.toString();
+    }
+
+    private static String name(Token token, List<String> words, int address) {
+        if(token instanceof Literal) {
+            return "literal";
+        }
+        if(token instanceof Superinstruction) {
+            return String.join(" ", words.subList(address, address + ((Superinstruction)token).size()));
+        }
+        return words.get(address);
+    }
+}
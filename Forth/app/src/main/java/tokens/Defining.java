@@ -0,0 +1,10 @@
+package tokens;
+
+/**
+ * {@code Defining} is a token which defines command named by the next word
+ * of line(variable, constant, create) or takes file named by it(save-image,
+ * load-image). Name isn't compiled, token skips it, so such tokens can be used
+ * only in line
+ */
+public interface Defining extends Token {
+}
@@ -0,0 +1,18 @@
+package tokens;
+
+/**
+ * {@code Jump} is a token which passes control to another place of the same line
+ * or definition. Its target is found once during compilation, so every appearance
+ * of such token in code has its own instance
+ */
+public interface Jump extends Token {
+    /**
+     * @param target index of token after which execution continues
+     */
+    void setTarget(int target);
+
+    /**
+     * @return index of token after which execution continues
+     */
+    int getTarget();
+}
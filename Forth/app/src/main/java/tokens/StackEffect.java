@@ -0,0 +1,51 @@
+package tokens;
+
+import context.Context;
+import exceptions.StackException;
+
+/**
+ * {@code StackEffect} is a token whose effect on data stack is known before execution:
+ * it takes fixed count of values and leaves fixed count of values, nothing else
+ * changes control of execution. Such tokens can be verified during compilation,
+ * so their sequence needs single check of stack depth instead of check in every token
+ * @see compiler.StackVerifier
+ */
+public interface StackEffect extends Token {
+    /**
+     * @return Count of values taken from stack, stack must contain at least that many
+     */
+    int inputs();
+
+    /**
+     * @return Count of values left on stack instead of taken ones
+     */
+    int outputs();
+
+    /**
+     * Does work of token without checking depth of data stack, caller guarantees
+     * that stack contains at least {@link #inputs()} values and has room for
+     * the rest of {@link #outputs()}. Superinstruction doesn't move program counter here
+     * @param context context of execution
+     */
+    void executeUnchecked(Context context);
+
+    /**
+     * Checks depth of stack and reserves room for outputs, then does work of token.
+     * Stack is cleared in case of underflow if token takes more than one value
+     * @param context context of execution
+     * @throws StackException In case of too short or too full stack
+     */
+    default void execute(Context context) {
+        int inputs = inputs();
+        if(context.stackSize() < inputs) {
+            if(inputs > 1) {
+                context.stackClear();
+            }
+            throw new StackException("stack underflow");
+        }
+        if(!context.stackReserve(outputs() - inputs)) {
+            throw new StackException("stack overflow");
+        }
+        executeUnchecked(context);
+    }
+}
@@ -0,0 +1,21 @@
+package tokens;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * {@code Word} names basic command implemented by token class. Annotated classes
+ * are collected into {@code WordTable} during compilation, so dictionary is
+ * built without reading config.properties and reflection
+ * @see WordTable
+ */
+@Retention(RetentionPolicy.CLASS)
+@Target(ElementType.TYPE)
+public @interface Word {
+    /**
+     * @return Word of command in program
+     */
+    String value();
+}
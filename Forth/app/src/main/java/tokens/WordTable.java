@@ -0,0 +1,20 @@
+package tokens;
+
+/**
+ * {@code WordTable} is a table of basic commands generated during build from classes
+ * annotated by {@code Word}. Tokens are created by constructors directly, without
+ * reflection. Generated table is registered in META-INF/services/tokens.WordTable
+ * @see compiler.Dictionary#load()
+ */
+public interface WordTable {
+    /**
+     * @return Words of commands, index of word is used by {@link #create(int)}
+     */
+    String[] words();
+
+    /**
+     * @param index Index of word
+     * @return New token of command
+     */
+    Token create(int index);
+}
@@ -0,0 +1,142 @@
+package tokens.constructions;
+
+import context.Context;
+import jit.CompiledWord;
+import jit.TieredCompiler;
+import tokens.Token;
+import exceptions.SyntaxException;
+
+/**
+ * {@code Call} executes self-defined command: it pushes return address on return stack
+ * and jumps to the compiled definition, which is finished by {@code Exit}.
+ * There is only one {@code Call} for each name, so redefinition of command changes
+ * its address for every place where it's called
+ * <p>
+ *     Calls are counted, when command becomes hot it's compiled to bytecode by
+ *     {@code TieredCompiler} and executed without interpretation after that
+ * </p>
+ * <p>
+ *     Every call checks whether execution is interrupted, so endless recursion can be stopped
+ * </p>
+ */
+public class Call implements Token {
+    public static final int UNDEFINED = -1;
+
+    private final String name;
+    private final TieredCompiler compiler;
+    private int address = UNDEFINED;
+    private CompiledWord compiled;
+    private int invocations;
+
+    public Call(String name) {
+        this(name, null);
+    }
+
+    /**
+     * @param name Name of self-defined command
+     * @param compiler Compiler of hot commands or null for interpretation only
+     */
+    public Call(String name, TieredCompiler compiler) {
+        this.name = name;
+        this.compiler = compiler;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public int getAddress() {
+        return address;
+    }
+
+    public void setAddress(int address) {
+        this.address = address;
+    }
+
+    public CompiledWord getCompiled() {
+        return compiled;
+    }
+
+    /**
+     * @param compiled Bytecode of definition or null for returning to interpretation,
+     * calls are counted again from zero then
+     */
+    public void setCompiled(CompiledWord compiled) {
+        this.compiled = compiled;
+        invocations = 0;
+    }
+
+    public void execute(Context context) {
+        if(address == UNDEFINED) {
+            throw new SyntaxException("invalid syntax");
+        }
+        context.interruptedCheck();
+        if(isCompiled()) {
+            invokeCompiled(context);
+            return;
+        }
+
+        context.returnStackPush(context.programCounterGet());
+        context.programCounterSet(address - 1);
+    }
+
+    /**
+     * Jumps to definition without pushing return address, so command returns
+     * to the place where caller was called. Compiled command is executed as a whole,
+     * after that caller continues to its {@code Exit}
+     * @param context context of execution
+     * @see TailCall
+     */
+    public void jump(Context context) {
+        if(address == UNDEFINED) {
+            throw new SyntaxException("invalid syntax");
+        }
+        context.interruptedCheck();
+        if(isCompiled()) {
+            invokeCompiled(context);
+            return;
+        }
+
+        context.programCounterSet(address - 1);
+    }
+
+    /**
+     * Executes command till its end. It's used by compiled code, which can't
+     * return to interpretation loop
+     * @param context context of execution
+     */
+    public void invoke(Context context) {
+        if(address == UNDEFINED) {
+            throw new SyntaxException("invalid syntax");
+        }
+        context.interruptedCheck();
+        if(isCompiled()) {
+            invokeCompiled(context);
+            return;
+        }
+
+        int pc = context.programCounterGet();
+        context.returnStackPush(pc);
+        compiler.interpret(address, context);
+        context.programCounterSet(pc);
+    }
+
+    // Counts call and tells whether compiled code can be executed
+    private boolean isCompiled() {
+        if(compiled == null && compiler != null && ++invocations == compiler.getThreshold()) {
+            compiler.compile(this);
+        }
+        return compiled != null && compiler.enter();
+    }
+
+    private void invokeCompiled(Context context) {
+        int pc = context.programCounterGet();
+        context.returnStackPush(pc);
+        try {
+            compiled.execute(context);
+        } finally {
+            compiler.leave();
+        }
+        context.programCounterSet(pc);
+    }
+}
@@ -2,6 +2,7 @@ package tokens.constructions;
 
 import context.Context;
 import tokens.Token;
+import tokens.Word;
 import exceptions.SyntaxException;
 
 import java.util.ArrayList;
@@ -10,6 +11,7 @@ import java.util.ArrayList;
  * {@code Command} defines a pair in map which takes place in {@code Forth}.
  * Throws {@code RuntimeException} in case of attempt to create a command without name/definition
  */
+@Word(":")
 public class Command implements Token {
     public void execute(Context context) {
         int pc = context.programCounterGet();
@@ -0,0 +1,16 @@
+package tokens.constructions;
+
+import tokens.Word;
+
+/**
+ * {@code ?do} works as {@code do}, but allows begin to be greater than limit,
+ * so it can be used with negative step of {@code +loop}. Cycle is skipped
+ * only in case of equal bounds
+ */
+@Word("?do")
+public class ConditionalDo extends Do {
+    @Override
+    protected boolean enters(int beginIndex, int limitIndex) {
+        return beginIndex != limitIndex;
+    }
+}
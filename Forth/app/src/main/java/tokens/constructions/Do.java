@@ -1,54 +1,66 @@
 package tokens.constructions;
 
 import context.Context;
-import tokens.Token;
+import tokens.Jump;
+import tokens.Word;
 import exceptions.*;
 
 /**
- * In any case of matching cycle token {@code Do}, method from that will be
- * called only once. After that call at the end of string will be placed a sequence:
- * .... [beginIndex] [limitIndex] [i] [indexes of i] <- end of line
- * As you see, it allows us to figure out indexes which contain i for replacing it then.
- * After end of cycle sequence will be erased. Also, in case of nested loops it just will
- * create another sequences, but all of them will be erased after end of cycle.
+ * {@code Do} starts a cycle which lasts till matching {@code loop ;} or {@code +loop ;}.
+ * Control parameters of cycle are kept on return stack as a frame:
+ * .... [index of do] [limit] [i] <- top of return stack
+ * So {@code Loop} jumps back without searching for do and {@code i}/{@code j} read
+ * indexes directly from frames. Frame is removed after the end of cycle.
+ * Cycle with equal bounds isn't executed at all, in that case {@code Do} jumps
+ * to its target found by {@code Linker}.
  */
-public class Do implements Token {
-    public void execute(Context context) {
-        int pc = context.programCounterGet();
-        int lineSize = context.lineSize();
-        int loopIndex = 0;
-        int depth = 1;
-        for(int i = pc + 1; depth != 0 && i < lineSize; ++i) {
-            String content = context.lineGet(i);
-            if(content.equals("do")) {
-                depth++;
-            } else if(content.equals("loop")) {
-                depth--;
-                loopIndex = i;
-            }
-        }
+@Word("do")
+public class Do implements Jump {
+    public static final int FRAME_SIZE = 3;
 
-        if(depth != 0 || loopIndex == 0 || loopIndex + 1 >= lineSize || !context.lineGet(loopIndex + 1).equals(";")) {
-            throw new SyntaxException("invalid syntax");
-        }
+    private int target;
+
+    public void setTarget(int target) {
+        this.target = target;
+    }
+
+    public int getTarget() {
+        return target;
+    }
 
+    public void execute(Context context) {
         int stackSize = context.stackSize();
         if(stackSize < 2) {
             context.stackClear();
             throw new StackException("stack underflow");
         }
 
-        if(context.stackGet(stackSize - 1) > context.stackGet(stackSize - 2)) {
-            throw new SyntaxException("illegal bounds");
+        // Bounds are checked before removing, so stack is kept in case of error
+        int beginIndex = context.stackGet(stackSize - 1);
+        int limitIndex = context.stackGet(stackSize - 2);
+        boolean entered = enters(beginIndex, limitIndex);
+        context.stackPop();
+        context.stackPop();
+        if(!entered) {
+            context.programCounterSet(target);
+            return;
         }
 
-        // Adding [beginIndex] [limitIndex] [i] [indexes of i] at the end of current line
-        String beginIndex = Integer.toString(context.stackRemove(context.stackSize() - 1));
-        context.lineAdd(beginIndex); // beginIndex
-        context.lineAdd(Integer.toString(context.stackRemove(context.stackSize() - 1))); // limitIndex
-        context.lineAdd(beginIndex); // i with beginIndex value
-        context.lineAdd(""); // string which will contain every index of i in do-loop for replacing
+        context.returnStackPush(context.programCounterGet());
+        context.returnStackPush(limitIndex);
+        context.returnStackPush(beginIndex);
+    }
 
-        context.programCounterSet(loopIndex - 1);
+    /**
+     * Decides if body of cycle should be executed at least once
+     * @param beginIndex first value of i
+     * @param limitIndex value of i which finishes cycle
+     * @return true if cycle should be entered
+     */
+    protected boolean enters(int beginIndex, int limitIndex) {
+        if(beginIndex > limitIndex) {
+            throw new SyntaxException("illegal bounds");
+        }
+        return beginIndex < limitIndex;
     }
 }
@@ -0,0 +1,21 @@
+package tokens.constructions;
+
+import context.Context;
+import tokens.Token;
+import tokens.Word;
+import exceptions.SyntaxException;
+
+/**
+ * {@code Exit} returns from self-defined command to the place where it was called.
+ * It's placed at the end of every definition, also it can be used for leaving
+ * definition earlier(inside of cycle frames must be dropped by {@code unloop} before)
+ */
+@Word("exit")
+public class Exit implements Token {
+    public void execute(Context context) {
+        if(context.returnStackSize() == 0) {
+            throw new SyntaxException("invalid syntax");
+        }
+        context.programCounterSet(context.returnStackPop());
+    }
+}
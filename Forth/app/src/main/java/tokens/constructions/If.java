@@ -1,44 +1,34 @@
 package tokens.constructions;
 
 import context.Context;
-import tokens.Token;
-import exceptions.*;
+import tokens.Jump;
+import tokens.Word;
+import exceptions.StackException;
 
-public class If implements Token {
-    public void execute(Context context) {
-        int pc = context.programCounterGet();
-        int lineSize = context.lineSize();
-        int elseIndex = 0;
-        int thenIndex = 0;
-        int depth = 1;
-        for(int i = pc + 1; depth != 0 && i < lineSize; ++i) {
-            String content = context.lineGet(i);
-            if(content.equals("if")) {
-                depth++;
-            } else if(content.equals("then")) {
-                depth--;
-                thenIndex = i;
-            }
-            if(depth == 1 && content.equals("else")) {
-                elseIndex = i;
-            }
-        }
+/**
+ * {@code If} takes top of stack and in case of zero jumps to else
+ * or to the end of construction(then ;)
+ * @see compiler.Linker
+ */
+@Word("if")
+public class If implements Jump {
+    private int target;
 
-        if(depth != 0 || thenIndex + 1 >= lineSize || !context.lineGet(thenIndex + 1).equals(";")) {
-            throw new SyntaxException("invalid syntax");
-        }
+    public void setTarget(int target) {
+        this.target = target;
+    }
 
-        int stackSize = context.stackSize();
-        if(stackSize == 0) {
+    public int getTarget() {
+        return target;
+    }
+
+    public void execute(Context context) {
+        if(context.stackSize() == 0) {
             throw new StackException("stack underflow");
         }
 
-        if(context.stackRemove(stackSize - 1) == 0) {
-            if(elseIndex != 0) {
-                context.programCounterSet(elseIndex);
-            } else {
-                context.programCounterSet(thenIndex - 1);
-            }
+        if(context.stackPop() == 0) {
+            context.programCounterSet(target);
         }
     }
 }
@@ -0,0 +1,31 @@
+package tokens.constructions;
+
+import context.Context;
+import tokens.Jump;
+import tokens.Word;
+import exceptions.SyntaxException;
+
+// Immediately finishes the innermost cycle and continues after its loop ;
+@Word("leave")
+public class Leave implements Jump {
+    private int target;
+
+    public void setTarget(int target) {
+        this.target = target;
+    }
+
+    public int getTarget() {
+        return target;
+    }
+
+    public void execute(Context context) {
+        if(context.returnStackSize() < Do.FRAME_SIZE) {
+            throw new SyntaxException("invalid syntax");
+        }
+
+        for(int i = 0; i < Do.FRAME_SIZE; ++i) {
+            context.returnStackPop();
+        }
+        context.programCounterSet(target);
+    }
+}
@@ -2,52 +2,47 @@ package tokens.constructions;
 
 import context.Context;
 import tokens.Token;
+import tokens.Word;
 import exceptions.SyntaxException;
 
+/**
+ * {@code Loop} increments i of the innermost cycle and jumps back to its
+ * do while i is less than limit. Otherwise, it removes frame of cycle
+ * from return stack and skips ';' after itself. Every jump back checks
+ * whether execution is interrupted, so endless cycle can be stopped
+ * @see Do
+ */
+@Word("loop")
 public class Loop implements Token {
     public void execute(Context context) {
         int pc = context.programCounterGet();
-        int lineSize = context.lineSize();
-        if(pc + 1 >= lineSize || !context.lineGet(pc + 1).equals(";")) {
+        if(context.returnStackSize() < Do.FRAME_SIZE) {
             throw new SyntaxException("invalid syntax");
         }
 
-        int doIndex = 0;
-        int depth = 1;
-        for(int i = pc - 1; depth != 0 && i >= 0; --i) {
-            String content = context.lineGet(i);
-            if(content.equals("loop")) {
-                depth++;
-            } else if(content.equals("do")) {
-                depth--;
-                doIndex = i;
-            }
-            if(content.equals("i") && depth == 1) {
-                context.lineSet(lineSize - 1, context.lineGet(lineSize - 1) + i + " ");
-            }
-        }
-
-        if(depth != 0) {
-            throw new SyntaxException("invalid syntax");
-        }
+        int index = context.returnStackPop();
+        next(context, pc, index, index + 1);
+    }
 
-        if(context.lineGet(lineSize - 2).equals(context.lineGet(lineSize - 3))) {
-            context.lineSubList(lineSize - 4, lineSize).clear();
-            context.programCounterSet(pc + 1);
+    /**
+     * Finishes step of cycle, which frame is on top of return stack without i
+     * @param context context of execution
+     * @param pc index of loop in line
+     * @param previous value of i before step
+     * @param index value of i after step
+     */
+    static void next(Context context, int pc, int previous, int index) {
+        int limit = context.returnStackPick(0);
+        // Cycle ends when i crosses the border between limit - 1 and limit
+        if(((previous - limit) ^ (index - limit)) >= 0) {
+            context.interruptedCheck();
+            context.returnStackPush(index);
+            context.programCounterSet(context.returnStackPick(2));
             return;
         }
 
-        String content = context.lineGet(lineSize - 1);
-        if(!content.isEmpty()) {
-            String[] numbers = content.split("\\s+"); // Splitting by whitespaces
-            for(String index : numbers) {
-                context.lineSet(Integer.parseInt(index), context.lineGet(lineSize - 2));
-            }
-        }
-
-        context.programCounterSet(doIndex);
-        int currentIndex = Integer.parseInt(context.lineGet(lineSize - 2));
-        currentIndex++;
-        context.lineSet(lineSize - 2, Integer.toString(currentIndex));
+        context.returnStackPop();
+        context.returnStackPop();
+        context.programCounterSet(pc + 1);
     }
 }
@@ -0,0 +1,25 @@
+package tokens.constructions;
+
+import context.Context;
+import tokens.StackEffect;
+import tokens.Word;
+import exceptions.SyntaxException;
+
+// Puts i of the innermost cycle on stack
+@Word("i")
+public class LoopIndex implements StackEffect {
+    public void executeUnchecked(Context context) {
+        if(context.returnStackSize() < Do.FRAME_SIZE) {
+            throw new SyntaxException("invalid syntax");
+        }
+        context.stackPushUnchecked(context.returnStackPick(0));
+    }
+
+    public int inputs() {
+        return 0;
+    }
+
+    public int outputs() {
+        return 1;
+    }
+}
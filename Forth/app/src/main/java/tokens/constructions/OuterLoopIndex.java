@@ -0,0 +1,25 @@
+package tokens.constructions;
+
+import context.Context;
+import tokens.StackEffect;
+import tokens.Word;
+import exceptions.SyntaxException;
+
+// Puts i of the cycle which contains the innermost one(j) on stack
+@Word("j")
+public class OuterLoopIndex implements StackEffect {
+    public void executeUnchecked(Context context) {
+        if(context.returnStackSize() < 2 * Do.FRAME_SIZE) {
+            throw new SyntaxException("invalid syntax");
+        }
+        context.stackPushUnchecked(context.returnStackPick(Do.FRAME_SIZE));
+    }
+
+    public int inputs() {
+        return 0;
+    }
+
+    public int outputs() {
+        return 1;
+    }
+}
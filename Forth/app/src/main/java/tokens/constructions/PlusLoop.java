@@ -0,0 +1,26 @@
+package tokens.constructions;
+
+import context.Context;
+import tokens.Token;
+import tokens.Word;
+import exceptions.StackException;
+import exceptions.SyntaxException;
+
+// Same as loop, but takes step of i from top of stack
+@Word("+loop")
+public class PlusLoop implements Token {
+    public void execute(Context context) {
+        int pc = context.programCounterGet();
+        if(context.returnStackSize() < Do.FRAME_SIZE) {
+            throw new SyntaxException("invalid syntax");
+        }
+
+        if(context.stackSize() == 0) {
+            throw new StackException("stack underflow");
+        }
+
+        int step = context.stackPop();
+        int index = context.returnStackPop();
+        Loop.next(context, pc, index, index + step);
+    }
+}
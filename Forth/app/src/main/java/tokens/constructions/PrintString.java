@@ -1,10 +1,11 @@
 package tokens.constructions;
 
 import context.Context;
-import out_formatter.OutFormatter;
 import tokens.Token;
+import tokens.Word;
 import exceptions.SyntaxException;
 
+@Word(".\"")
 public class PrintString implements Token {
     public void execute(Context context) {
         int pc = context.programCounterGet();
@@ -12,23 +13,27 @@ public class PrintString implements Token {
             throw new SyntaxException("invalid syntax");
         }
 
-        StringBuilder out = new StringBuilder();
         int i = pc + 2;
-        for(; i < context.lineSize() && !context.lineGet(i).contains("\""); ++i) {
-            out.append(context.lineGet(i));
+        while(i < context.lineSize() && !context.lineGet(i).contains("\"")) {
+            ++i;
         }
 
         if(i == context.lineSize()) {
             throw new SyntaxException("invalid syntax");
         }
 
-        StringBuilder lastToken = new StringBuilder(context.lineGet(i));
-        lastToken.deleteCharAt(lastToken.length() - 1);
-
-        out.append(lastToken);
-
-        OutFormatter outFormatter = new OutFormatter();
-        outFormatter.append(out.toString());
+        String lastToken = context.lineGet(i);
+        if(i == pc + 2) {
+            // Whole string is a single word(as it's split by Scanner)
+            context.outFormatterGet().append(lastToken, 0, lastToken.length() - 1);
+        } else {
+            StringBuilder out = new StringBuilder();
+            for(int j = pc + 2; j < i; ++j) {
+                out.append(context.lineGet(j));
+            }
+            out.append(lastToken, 0, lastToken.length() - 1);
+            context.outFormatterGet().append(out.toString());
+        }
 
         context.programCounterSet(i);
     }
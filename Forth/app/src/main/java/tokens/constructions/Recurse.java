@@ -0,0 +1,17 @@
+package tokens.constructions;
+
+import context.Context;
+import tokens.Token;
+import tokens.Word;
+import exceptions.SyntaxException;
+
+/**
+ * {@code Recurse} calls definition which contains it. It's replaced by {@code Call}
+ * during compilation of definition, so it can't be executed in ordinary line
+ */
+@Word("recurse")
+public class Recurse implements Token {
+    public void execute(Context context) {
+        throw new SyntaxException("invalid syntax");
+    }
+}
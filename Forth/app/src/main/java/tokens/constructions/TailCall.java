@@ -0,0 +1,35 @@
+package tokens.constructions;
+
+import context.Context;
+import tokens.Token;
+
+/**
+ * {@code TailCall} replaces {@code Call}, after which definition only returns.
+ * Return address isn't pushed, so tail recursion(including mutual one) takes
+ * constant space of return stack
+ * @see compiler.TailCallEliminator
+ */
+public class TailCall implements Token {
+    private final Call call;
+
+    public TailCall(Call call) {
+        this.call = call;
+    }
+
+    public Call getCall() {
+        return call;
+    }
+
+    public void execute(Context context) {
+        call.jump(context);
+    }
+
+    /**
+     * Executes command till its end, caller returns by itself after that.
+     * It's used by compiled code
+     * @param context context of execution
+     */
+    public void invoke(Context context) {
+        call.invoke(context);
+    }
+}
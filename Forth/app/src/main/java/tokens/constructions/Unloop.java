@@ -0,0 +1,20 @@
+package tokens.constructions;
+
+import context.Context;
+import tokens.Token;
+import tokens.Word;
+import exceptions.SyntaxException;
+
+// Drops frame of the innermost cycle, so exit can be used inside of it
+@Word("unloop")
+public class Unloop implements Token {
+    public void execute(Context context) {
+        if(context.returnStackSize() < Do.FRAME_SIZE) {
+            throw new SyntaxException("invalid syntax");
+        }
+
+        for(int i = 0; i < Do.FRAME_SIZE; ++i) {
+            context.returnStackPop();
+        }
+    }
+}
@@ -0,0 +1,20 @@
+package tokens.instructions;
+
+import context.Context;
+import tokens.Token;
+
+/**
+ * {@code Base} changes numeral system used for reading and printing numbers.
+ * Compiler also changes it for the rest of compiled line or definition, so
+ * numbers after it are read in new system
+ */
+public abstract class Base implements Token {
+    /**
+     * @return Base of numeral system
+     */
+    public abstract int get();
+
+    public void execute(Context context) {
+        context.baseSet(get());
+    }
+}
@@ -0,0 +1,11 @@
+package tokens.instructions;
+
+import tokens.Word;
+
+// Switches to binary numeral system
+@Word("binary")
+public class Binary extends Base {
+    public int get() {
+        return 2;
+    }
+}
@@ -1,13 +1,13 @@
 package tokens.instructions;
 
 import context.Context;
-import out_formatter.OutFormatter;
 import tokens.Token;
+import tokens.Word;
 
 // Prints new line('\n')
+@Word("cr")
 public class Cr implements Token {
     public void execute(Context context) {
-        OutFormatter outFormatter = new OutFormatter();
-        outFormatter.append("\n");
+        context.outFormatterGet().append('\n');
     }
 }
@@ -0,0 +1,11 @@
+package tokens.instructions;
+
+import tokens.Word;
+
+// Switches to decimal numeral system
+@Word("decimal")
+public class Decimal extends Base {
+    public int get() {
+        return 10;
+    }
+}
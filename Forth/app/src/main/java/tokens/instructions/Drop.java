@@ -1,16 +1,21 @@
 package tokens.instructions;
 
 import context.Context;
-import tokens.Token;
-import exceptions.StackException;
+import tokens.StackEffect;
+import tokens.Word;
 
 // Deletes top of stack
-public class Drop implements Token {
-    public void execute(Context context) {
-        int stackSize = context.stackSize();
-        if(stackSize == 0) {
-            throw new StackException("stack underflow");
-        }
-        context.stackRemove(stackSize - 1);
+@Word("drop")
+public class Drop implements StackEffect {
+    public void executeUnchecked(Context context) {
+        context.stackPopUnchecked();
+    }
+
+    public int inputs() {
+        return 1;
+    }
+
+    public int outputs() {
+        return 0;
     }
 }
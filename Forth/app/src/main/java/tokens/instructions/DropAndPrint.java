@@ -1,18 +1,18 @@
 package tokens.instructions;
 
 import context.Context;
-import out_formatter.OutFormatter;
 import tokens.Token;
+import tokens.Word;
 import exceptions.StackException;
 
 // Removes top of stack and prints it
+@Word(".")
 public class DropAndPrint implements Token {
     public void execute(Context context) {
         int stackSize = context.stackSize();
         if(stackSize == 0) {
             throw new StackException("stack underflow");
         }
-        OutFormatter outFormatter = new OutFormatter();
-        outFormatter.append(Integer.toString(context.stackRemove(stackSize - 1)));
+        context.outFormatterGet().append(context.stackPop(), context.baseGet());
     }
 }
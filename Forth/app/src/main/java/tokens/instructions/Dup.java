@@ -1,16 +1,21 @@
 package tokens.instructions;
 
 import context.Context;
-import tokens.Token;
-import exceptions.StackException;
+import tokens.StackEffect;
+import tokens.Word;
 
 // Dubbing top of stack on stack
-public class Dup implements Token {
-    public void execute(Context context) {
-        int stackSize = context.stackSize();
-        if(stackSize == 0) {
-            throw new StackException("stack underflow");
-        }
-        context.stackAdd(context.stackGet(stackSize - 1));
+@Word("dup")
+public class Dup implements StackEffect {
+    public void executeUnchecked(Context context) {
+        context.stackPushUnchecked(context.stackPeekUnchecked());
+    }
+
+    public int inputs() {
+        return 1;
+    }
+
+    public int outputs() {
+        return 2;
     }
 }
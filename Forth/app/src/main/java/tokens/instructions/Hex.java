@@ -0,0 +1,11 @@
+package tokens.instructions;
+
+import tokens.Word;
+
+// Switches to hexadecimal numeral system
+@Word("hex")
+public class Hex extends Base {
+    public int get() {
+        return 16;
+    }
+}
@@ -0,0 +1,29 @@
+package tokens.instructions;
+
+import context.Context;
+import tokens.StackEffect;
+
+// Pushes number which was parsed once at compilation of line
+public class Literal implements StackEffect {
+    private final int value;
+
+    public Literal(int value) {
+        this.value = value;
+    }
+
+    public int get() {
+        return value;
+    }
+
+    public void executeUnchecked(Context context) {
+        context.stackPushUnchecked(value);
+    }
+
+    public int inputs() {
+        return 0;
+    }
+
+    public int outputs() {
+        return 1;
+    }
+}
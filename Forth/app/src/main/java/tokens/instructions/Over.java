@@ -1,17 +1,21 @@
 package tokens.instructions;
 
 import context.Context;
-import tokens.Token;
-import exceptions.StackException;
+import tokens.StackEffect;
+import tokens.Word;
 
 // Dubbing pre-top of stack to stack
-public class Over implements Token {
-    public void execute(Context context) {
-        int stackSize = context.stackSize();
-        if(stackSize < 2) {
-            context.stackClear();
-            throw new StackException("stack underflow");
-        }
-        context.stackAdd(context.stackGet(stackSize - 2));
+@Word("over")
+public class Over implements StackEffect {
+    public void executeUnchecked(Context context) {
+        context.stackPushUnchecked(context.stackPickUnchecked(1));
+    }
+
+    public int inputs() {
+        return 2;
+    }
+
+    public int outputs() {
+        return 3;
     }
 }
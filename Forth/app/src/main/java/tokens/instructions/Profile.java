@@ -0,0 +1,16 @@
+package tokens.instructions;
+
+import context.Context;
+import profile.Profiler;
+import tokens.Token;
+import tokens.Word;
+
+// Prints report of profiler, profiling is turned on by -Dforth.profile=true
+@Word(".profile")
+public class Profile implements Token {
+    public void execute(Context context) {
+        Profiler profiler = context.profilerGet();
+        context.outFormatterGet().append(profiler != null ? profiler.toString()
+                : "profiler is turned off, run with -Dforth.profile=true\n");
+    }
+}
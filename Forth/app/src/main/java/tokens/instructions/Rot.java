@@ -1,20 +1,26 @@
 package tokens.instructions;
 
 import context.Context;
-import tokens.Token;
-import exceptions.StackException;
+import tokens.StackEffect;
+import tokens.Word;
 
 // Cyclic move 3 last position of stack
-public class Rot implements Token {
-    public void execute(Context context) {
-        int stackSize = context.stackSize();
-        if(stackSize < 3) {
-            context.stackClear();
-            throw new StackException("stack underflow");
-        }
-        int temp = context.stackGet(stackSize - 1);
-        context.stackSet(stackSize - 1, context.stackGet(stackSize - 2));
-        context.stackSet(stackSize - 2, context.stackGet(stackSize - 3));
-        context.stackSet(stackSize - 3, temp);
+@Word("rot")
+public class Rot implements StackEffect {
+    public void executeUnchecked(Context context) {
+        int top = context.stackPopUnchecked();
+        int second = context.stackPopUnchecked();
+        int third = context.stackPopUnchecked();
+        context.stackPushUnchecked(top);
+        context.stackPushUnchecked(third);
+        context.stackPushUnchecked(second);
+    }
+
+    public int inputs() {
+        return 3;
+    }
+
+    public int outputs() {
+        return 3;
     }
 }
@@ -1,19 +1,24 @@
 package tokens.instructions;
 
 import context.Context;
-import tokens.Token;
-import exceptions.StackException;
+import tokens.StackEffect;
+import tokens.Word;
 
 // Swaps top of stack with pre-top
-public class Swap implements Token{
-    public void execute(Context context) {
-        int stackSize = context.stackSize();
-        if(stackSize < 2) {
-            context.stackClear();
-            throw new StackException("stack underflow");
-        }
-        int temp = context.stackGet(stackSize - 1);
-        context.stackSet(stackSize - 1, context.stackGet(stackSize - 2));
-        context.stackSet(stackSize - 2, temp);
+@Word("swap")
+public class Swap implements StackEffect {
+    public void executeUnchecked(Context context) {
+        int top = context.stackPopUnchecked();
+        int preTop = context.stackPopUnchecked();
+        context.stackPushUnchecked(top);
+        context.stackPushUnchecked(preTop);
+    }
+
+    public int inputs() {
+        return 2;
+    }
+
+    public int outputs() {
+        return 2;
     }
 }
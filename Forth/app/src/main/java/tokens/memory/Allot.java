@@ -0,0 +1,17 @@
+package tokens.memory;
+
+import context.Context;
+import tokens.Token;
+import tokens.Word;
+import exceptions.StackException;
+
+// Reserves given count of bytes in data space
+@Word("allot")
+public class Allot implements Token {
+    public void execute(Context context) {
+        if(context.stackSize() == 0) {
+            throw new StackException("stack underflow");
+        }
+        context.dataSpaceGet().allot(context.stackPop());
+    }
+}
@@ -0,0 +1,22 @@
+package tokens.memory;
+
+import context.Context;
+import data_types.DataSpace;
+import tokens.StackEffect;
+import tokens.Word;
+
+// Converts count of cells to count of bytes
+@Word("cells")
+public class Cells implements StackEffect {
+    public void executeUnchecked(Context context) {
+        context.stackPushUnchecked(context.stackPopUnchecked() * DataSpace.CELL);
+    }
+
+    public int inputs() {
+        return 1;
+    }
+
+    public int outputs() {
+        return 1;
+    }
+}
@@ -0,0 +1,21 @@
+package tokens.memory;
+
+import context.Context;
+import tokens.StackEffect;
+import tokens.Word;
+
+// Replaces address by byte stored at it
+@Word("c@")
+public class CharFetch implements StackEffect {
+    public void executeUnchecked(Context context) {
+        context.stackPushUnchecked(context.dataSpaceGet().fetchChar(context.stackPopUnchecked()));
+    }
+
+    public int inputs() {
+        return 1;
+    }
+
+    public int outputs() {
+        return 1;
+    }
+}
@@ -0,0 +1,22 @@
+package tokens.memory;
+
+import context.Context;
+import tokens.StackEffect;
+import tokens.Word;
+
+// Stores low byte of pre-top of stack at address on top
+@Word("c!")
+public class CharStore implements StackEffect {
+    public void executeUnchecked(Context context) {
+        int address = context.stackPopUnchecked();
+        context.dataSpaceGet().storeChar(address, context.stackPopUnchecked());
+    }
+
+    public int inputs() {
+        return 2;
+    }
+
+    public int outputs() {
+        return 0;
+    }
+}
@@ -0,0 +1,21 @@
+package tokens.memory;
+
+import context.Context;
+import data_types.DataSpace;
+import tokens.Token;
+import tokens.Word;
+import exceptions.StackException;
+
+// Reserves cell in data space and stores top of stack in it
+@Word(",")
+public class Comma implements Token {
+    public void execute(Context context) {
+        if(context.stackSize() == 0) {
+            throw new StackException("stack underflow");
+        }
+        DataSpace dataSpace = context.dataSpaceGet();
+        int address = dataSpace.here();
+        dataSpace.allot(DataSpace.CELL);
+        dataSpace.store(address, context.stackPop());
+    }
+}
@@ -0,0 +1,18 @@
+package tokens.memory;
+
+import context.Context;
+import tokens.Defining;
+import tokens.Word;
+import exceptions.StackException;
+
+// Defines command which pushes value taken from top of stack
+@Word("constant")
+public class Constant implements Defining {
+    public void execute(Context context) {
+        String name = Definitions.name(context);
+        if(context.stackSize() == 0) {
+            throw new StackException("stack underflow");
+        }
+        Definitions.define(context, name, context.stackPop());
+    }
+}
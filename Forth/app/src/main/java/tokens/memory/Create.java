@@ -0,0 +1,18 @@
+package tokens.memory;
+
+import context.Context;
+import tokens.Defining;
+import tokens.Word;
+
+/**
+ * {@code Create} defines command which pushes current here, so memory
+ * reserved after it by allot or ',' belongs to this command
+ */
+@Word("create")
+public class Create implements Defining {
+    public void execute(Context context) {
+        String name = Definitions.name(context);
+        context.dataSpaceGet().align();
+        Definitions.define(context, name, context.dataSpaceGet().here());
+    }
+}
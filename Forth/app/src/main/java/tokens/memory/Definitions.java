@@ -0,0 +1,30 @@
+package tokens.memory;
+
+import context.Context;
+import exceptions.SyntaxException;
+
+import java.util.ArrayList;
+import java.util.List;
+
+// Common part of defining words: they take name from the next word and skip it
+final class Definitions {
+    private Definitions() { }
+
+    /**
+     * @return Name placed after defining word, program counter is moved to it
+     * @throws SyntaxException If there is no name
+     */
+    static String name(Context context) {
+        int pc = context.programCounterGet();
+        if(pc + 1 >= context.lineSize()) {
+            throw new SyntaxException("invalid syntax");
+        }
+        context.programCounterSet(pc + 1);
+        return context.lineGet(pc + 1);
+    }
+
+    // Command is compiled to decimal literal, so it doesn't depend on base
+    static void define(Context context, String name, int value) {
+        context.defineCommandPut(name, new ArrayList<>(List.of("#" + value)));
+    }
+}
@@ -0,0 +1,21 @@
+package tokens.memory;
+
+import context.Context;
+import tokens.StackEffect;
+import tokens.Word;
+
+// Replaces address by cell stored at it
+@Word("@")
+public class Fetch implements StackEffect {
+    public void executeUnchecked(Context context) {
+        context.stackPushUnchecked(context.dataSpaceGet().fetch(context.stackPopUnchecked()));
+    }
+
+    public int inputs() {
+        return 1;
+    }
+
+    public int outputs() {
+        return 1;
+    }
+}
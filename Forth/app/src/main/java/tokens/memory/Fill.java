@@ -0,0 +1,20 @@
+package tokens.memory;
+
+import context.Context;
+import tokens.Token;
+import tokens.Word;
+import exceptions.StackException;
+
+// ( address count char ) fills bytes of data space by char
+@Word("fill")
+public class Fill implements Token {
+    public void execute(Context context) {
+        if(context.stackSize() < 3) {
+            context.stackClear();
+            throw new StackException("stack underflow");
+        }
+        int value = context.stackPop();
+        int count = context.stackPop();
+        context.dataSpaceGet().fill(context.stackPop(), count, value);
+    }
+}
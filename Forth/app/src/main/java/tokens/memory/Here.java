@@ -0,0 +1,13 @@
+package tokens.memory;
+
+import context.Context;
+import tokens.Token;
+import tokens.Word;
+
+// Pushes address of the first free byte of data space
+@Word("here")
+public class Here implements Token {
+    public void execute(Context context) {
+        context.stackPush(context.dataSpaceGet().here());
+    }
+}
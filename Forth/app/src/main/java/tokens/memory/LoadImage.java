@@ -0,0 +1,17 @@
+package tokens.memory;
+
+import context.Context;
+import tokens.Defining;
+import tokens.Word;
+
+/**
+ * {@code LoadImage} replaces self-defined commands and data space by image from
+ * file named by the next word. Image is loaded after the end of line, stack is kept
+ * @see image.Image
+ */
+@Word("load-image")
+public class LoadImage implements Defining {
+    public void execute(Context context) {
+        context.imageLoad(Definitions.name(context));
+    }
+}
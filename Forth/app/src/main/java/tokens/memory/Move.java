@@ -0,0 +1,20 @@
+package tokens.memory;
+
+import context.Context;
+import tokens.Token;
+import tokens.Word;
+import exceptions.StackException;
+
+// ( from to count ) copies bytes of data space
+@Word("move")
+public class Move implements Token {
+    public void execute(Context context) {
+        if(context.stackSize() < 3) {
+            context.stackClear();
+            throw new StackException("stack underflow");
+        }
+        int count = context.stackPop();
+        int to = context.stackPop();
+        context.dataSpaceGet().move(context.stackPop(), to, count);
+    }
+}
@@ -0,0 +1,17 @@
+package tokens.memory;
+
+import context.Context;
+import tokens.Defining;
+import tokens.Word;
+
+/**
+ * {@code SaveImage} saves compiled commands and data space to file named by the
+ * next word. Image is written after the end of line, so definitions of line are saved too
+ * @see image.Image
+ */
+@Word("save-image")
+public class SaveImage implements Defining {
+    public void execute(Context context) {
+        context.imageSave(Definitions.name(context));
+    }
+}
@@ -0,0 +1,22 @@
+package tokens.memory;
+
+import context.Context;
+import tokens.StackEffect;
+import tokens.Word;
+
+// Stores pre-top of stack to cell at address on top
+@Word("!")
+public class Store implements StackEffect {
+    public void executeUnchecked(Context context) {
+        int address = context.stackPopUnchecked();
+        context.dataSpaceGet().store(address, context.stackPopUnchecked());
+    }
+
+    public int inputs() {
+        return 2;
+    }
+
+    public int outputs() {
+        return 0;
+    }
+}
@@ -0,0 +1,23 @@
+package tokens.memory;
+
+import context.Context;
+import data_types.DataSpace;
+import tokens.Defining;
+import tokens.Word;
+
+/**
+ * {@code Variable} reserves cell in data space and defines command,
+ * which pushes its address. Cell is zeroed
+ */
+@Word("variable")
+public class Variable implements Defining {
+    public void execute(Context context) {
+        String name = Definitions.name(context);
+        DataSpace dataSpace = context.dataSpaceGet();
+        dataSpace.align();
+        int address = dataSpace.here();
+        dataSpace.allot(DataSpace.CELL);
+        dataSpace.store(address, 0);
+        Definitions.define(context, name, address);
+    }
+}
@@ -1,17 +1,22 @@
 package tokens.operations;
 
 import context.Context;
-import tokens.Token;
-import exceptions.StackException;
+import tokens.StackEffect;
+import tokens.Word;
 
-public class Minus implements Token {
-    public void execute(Context context) {
-        if(context.stackSize() < 2) {
-            context.stackClear();
-            throw new StackException("stack underflow");
-        }
-        int rightOperand = context.stackRemove(context.stackSize() - 1);
-        int leftOperand = context.stackRemove(context.stackSize() - 1);
-        context.stackAdd(leftOperand - rightOperand);
+@Word("-")
+public class Minus implements StackEffect {
+    public void executeUnchecked(Context context) {
+        int rightOperand = context.stackPopUnchecked();
+        int leftOperand = context.stackPopUnchecked();
+        context.stackPushUnchecked(leftOperand - rightOperand);
+    }
+
+    public int inputs() {
+        return 2;
+    }
+
+    public int outputs() {
+        return 1;
     }
 }
@@ -0,0 +1,49 @@
+package tokens.superinstructions;
+
+import context.Context;
+import exceptions.StackException;
+import tokens.Jump;
+import tokens.Token;
+import tokens.constructions.If;
+
+import java.util.List;
+
+/**
+ * Superinstruction which compares top of stack with number and works as if
+ * with result of comparison: n [=|<|>] if
+ */
+public abstract class BranchLiteralSuperinstruction extends LiteralSuperinstruction implements Jump {
+    private int target;
+
+    @Override
+    public void fuse(List<Token> replaced) {
+        super.fuse(replaced);
+        target = ((If)replaced.get(replaced.size() - 1)).getTarget();
+    }
+
+    public void setTarget(int target) {
+        this.target = target;
+    }
+
+    public int getTarget() {
+        return target;
+    }
+
+    /**
+     * @param value top of stack
+     * @return result of comparison with number
+     */
+    protected abstract boolean test(int value);
+
+    public void execute(Context context) {
+        if(context.stackSize() == 0) {
+            throw new StackException("stack underflow");
+        }
+
+        if(test(context.stackPop())) {
+            skip(context);
+        } else {
+            context.programCounterSet(target);
+        }
+    }
+}
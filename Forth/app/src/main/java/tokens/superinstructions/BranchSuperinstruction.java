@@ -0,0 +1,53 @@
+package tokens.superinstructions;
+
+import context.Context;
+import exceptions.StackException;
+import tokens.Jump;
+import tokens.Token;
+import tokens.constructions.If;
+
+import java.util.List;
+
+/**
+ * Superinstruction which compares two values from top of stack and works as if
+ * with result of comparison: [=|<|>] if
+ */
+public abstract class BranchSuperinstruction extends Superinstruction implements Jump {
+    private int target;
+
+    @Override
+    public void fuse(List<Token> replaced) {
+        super.fuse(replaced);
+        target = ((If)replaced.get(replaced.size() - 1)).getTarget();
+    }
+
+    public void setTarget(int target) {
+        this.target = target;
+    }
+
+    public int getTarget() {
+        return target;
+    }
+
+    /**
+     * @param leftOperand pre-top of stack
+     * @param rightOperand top of stack
+     * @return result of comparison
+     */
+    protected abstract boolean test(int leftOperand, int rightOperand);
+
+    public void execute(Context context) {
+        if(context.stackSize() < 2) {
+            context.stackClear();
+            throw new StackException("stack underflow");
+        }
+
+        int rightOperand = context.stackPop();
+        int leftOperand = context.stackPop();
+        if(test(leftOperand, rightOperand)) {
+            skip(context);
+        } else {
+            context.programCounterSet(target);
+        }
+    }
+}
@@ -0,0 +1,24 @@
+package tokens.superinstructions;
+
+import context.Context;
+import tokens.StackEffect;
+
+// n = - compares top of stack with number
+public class EqualityLiteral extends LiteralSuperinstruction implements StackEffect {
+    public void execute(Context context) {
+        StackEffect.super.execute(context);
+        skip(context);
+    }
+
+    public void executeUnchecked(Context context) {
+        context.stackPushUnchecked(context.stackPopUnchecked() == literal ? 1 : 0);
+    }
+
+    public int inputs() {
+        return 1;
+    }
+
+    public int outputs() {
+        return 1;
+    }
+}
@@ -0,0 +1,8 @@
+package tokens.superinstructions;
+
+// = if
+public class IfEquality extends BranchSuperinstruction {
+    protected boolean test(int leftOperand, int rightOperand) {
+        return leftOperand == rightOperand;
+    }
+}
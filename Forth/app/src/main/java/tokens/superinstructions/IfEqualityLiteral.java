@@ -0,0 +1,8 @@
+package tokens.superinstructions;
+
+// n = if
+public class IfEqualityLiteral extends BranchLiteralSuperinstruction {
+    protected boolean test(int value) {
+        return value == literal;
+    }
+}
@@ -0,0 +1,21 @@
+package tokens.superinstructions;
+
+import tokens.Token;
+import tokens.instructions.Literal;
+
+import java.util.List;
+
+// Superinstruction which begins with a number, value of number is kept by it
+public abstract class LiteralSuperinstruction extends Superinstruction {
+    protected int literal;
+
+    @Override
+    public void fuse(List<Token> replaced) {
+        super.fuse(replaced);
+        literal = ((Literal)replaced.get(0)).get();
+    }
+
+    public int getLiteral() {
+        return literal;
+    }
+}
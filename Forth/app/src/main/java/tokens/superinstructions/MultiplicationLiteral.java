@@ -0,0 +1,24 @@
+package tokens.superinstructions;
+
+import context.Context;
+import tokens.StackEffect;
+
+// n * - multiplies top of stack by number
+public class MultiplicationLiteral extends LiteralSuperinstruction implements StackEffect {
+    public void execute(Context context) {
+        StackEffect.super.execute(context);
+        skip(context);
+    }
+
+    public void executeUnchecked(Context context) {
+        context.stackPushUnchecked(context.stackPopUnchecked() * literal);
+    }
+
+    public int inputs() {
+        return 1;
+    }
+
+    public int outputs() {
+        return 1;
+    }
+}
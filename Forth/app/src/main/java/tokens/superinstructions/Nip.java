@@ -0,0 +1,26 @@
+package tokens.superinstructions;
+
+import context.Context;
+import tokens.StackEffect;
+
+// swap drop - deletes pre-top of stack
+public class Nip extends Superinstruction implements StackEffect {
+    public void execute(Context context) {
+        StackEffect.super.execute(context);
+        skip(context);
+    }
+
+    public void executeUnchecked(Context context) {
+        int top = context.stackPopUnchecked();
+        context.stackPopUnchecked();
+        context.stackPushUnchecked(top);
+    }
+
+    public int inputs() {
+        return 2;
+    }
+
+    public int outputs() {
+        return 1;
+    }
+}
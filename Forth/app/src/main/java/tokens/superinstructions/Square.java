@@ -0,0 +1,25 @@
+package tokens.superinstructions;
+
+import context.Context;
+import tokens.StackEffect;
+
+// dup * - squares top of stack
+public class Square extends Superinstruction implements StackEffect {
+    public void execute(Context context) {
+        StackEffect.super.execute(context);
+        skip(context);
+    }
+
+    public void executeUnchecked(Context context) {
+        int value = context.stackPopUnchecked();
+        context.stackPushUnchecked(value * value);
+    }
+
+    public int inputs() {
+        return 1;
+    }
+
+    public int outputs() {
+        return 1;
+    }
+}
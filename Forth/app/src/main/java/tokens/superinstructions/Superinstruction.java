@@ -0,0 +1,39 @@
+package tokens.superinstructions;
+
+import context.Context;
+import tokens.Token;
+
+import java.util.List;
+
+/**
+ * {@code Superinstruction} does work of a few tokens in a row by single execution.
+ * It's placed by {@code Peephole} instead of the first of replaced tokens, the rest
+ * of them stay in code(so line and code stay aligned), but they are skipped
+ * @see compiler.Peephole
+ */
+public abstract class Superinstruction implements Token {
+    private int skipped;
+
+    /**
+     * Takes everything needed from replaced tokens
+     * @param replaced Tokens matched by pattern of rule
+     */
+    public void fuse(List<Token> replaced) {
+        skipped = replaced.size() - 1;
+    }
+
+    /**
+     * @return Count of replaced tokens
+     */
+    public int size() {
+        return skipped + 1;
+    }
+
+    /**
+     * Moves program counter to the last replaced token
+     * @param context context of execution
+     */
+    protected void skip(Context context) {
+        context.programCounterSet(context.programCounterGet() + skipped);
+    }
+}
@@ -0,0 +1,25 @@
+package tokens.superinstructions;
+
+import context.Context;
+import tokens.StackEffect;
+
+// over over - dubbing two values from top of stack
+public class TwoDup extends Superinstruction implements StackEffect {
+    public void execute(Context context) {
+        StackEffect.super.execute(context);
+        skip(context);
+    }
+
+    public void executeUnchecked(Context context) {
+        context.stackPushUnchecked(context.stackPickUnchecked(1));
+        context.stackPushUnchecked(context.stackPickUnchecked(1));
+    }
+
+    public int inputs() {
+        return 2;
+    }
+
+    public int outputs() {
+        return 4;
+    }
+}
@@ -0,0 +1,105 @@
+package tokens.superinstructions;
+
+import context.Context;
+import tokens.StackEffect;
+import tokens.Token;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * {@code VerifiedBlock} executes straight-line sequence of {@code StackEffect} tokens
+ * verified by {@code StackVerifier}. Depth of stack needed by the whole sequence is
+ * found during compilation, so it's checked once at the beginning of block together
+ * with room for values pushed by block, and tokens are executed without their own checks.
+ * <p>
+ *     If stack isn't deep enough or can't grow enough, tokens are executed one by one with their checks,
+ *     so error and state of stack are the same as without verification
+ * </p>
+ * @see compiler.StackVerifier
+ */
+public class VerifiedBlock extends Superinstruction {
+    private StackEffect[] tokens;
+    private int depth;
+    private int growth;
+
+    /**
+     * Takes tokens of sequence, tokens skipped by superinstructions of sequence are left
+     * @param replaced Slots of code covered by block, each of them begins with {@code StackEffect}
+     */
+    @Override
+    public void fuse(List<Token> replaced) {
+        super.fuse(replaced);
+        List<StackEffect> effects = new ArrayList<>();
+        int height = 0;
+        depth = 0;
+        growth = 0;
+        for(int i = 0; i < replaced.size(); ++i) {
+            StackEffect token = (StackEffect)replaced.get(i);
+            effects.add(token);
+            depth = Math.max(depth, token.inputs() - height);
+            height += token.outputs() - token.inputs();
+            growth = Math.max(growth, height);
+            if(token instanceof Superinstruction) {
+                i += ((Superinstruction)token).size() - 1;
+            }
+        }
+        tokens = effects.toArray(new StackEffect[0]);
+    }
+
+    /**
+     * @return Count of values which stack must contain before block
+     */
+    public int getDepth() {
+        return depth;
+    }
+
+    /**
+     * @return The biggest count of values which block adds to stack
+     */
+    public int getGrowth() {
+        return growth;
+    }
+
+    /**
+     * @return Count of tokens executed by block
+     */
+    public int length() {
+        return tokens.length;
+    }
+
+    /**
+     * @param index Index of token in block
+     * @return Token executed by block
+     */
+    public StackEffect get(int index) {
+        return tokens[index];
+    }
+
+    /**
+     * Checks depth of stack and reserves its growth once for the whole block. Block is
+     * executed with checks of every token if stack isn't deep enough or is full
+     * @param context context of execution
+     * @return True if tokens can be executed without checks, otherwise block is already executed
+     */
+    public boolean verify(Context context) {
+        if(context.stackSize() >= depth && context.stackReserve(growth)) {
+            return true;
+        }
+        int programCounter = context.programCounterGet();
+        for(StackEffect token : tokens) {
+            token.execute(context);
+        }
+        context.programCounterSet(programCounter);
+        return false;
+    }
+
+    public void execute(Context context) {
+        if(verify(context)) {
+            for(StackEffect token : tokens) {
+                token.executeUnchecked(context);
+            }
+        }
+        skip(context);
+    }
+}
@@ -0,0 +1,68 @@
+package trace;
+
+/**
+ * {@code ExecutionTrace} remembers the last executed tokens of {@code Forth}.
+ * Every record keeps word, program counter and depth of stack. Records are
+ * written to preallocated ring buffer, so tracing doesn't allocate anything
+ * and the oldest records are overwritten by new ones
+ * <p>
+ *     Trace is printed by toString() from the oldest record to the newest
+ * </p>
+ */
+public class ExecutionTrace {
+    private final String[] words;
+    private final int[] programCounters;
+    private final int[] depths;
+    private int next = 0;
+    private long count = 0;
+
+    /**
+     * @param capacity Amount of the last records which will be kept
+     */
+    public ExecutionTrace(int capacity) {
+        if(capacity <= 0) {
+            throw new IllegalArgumentException("capacity must be positive");
+        }
+        words = new String[capacity];
+        programCounters = new int[capacity];
+        depths = new int[capacity];
+    }
+
+    /**
+     * Writes a record over the oldest one
+     * @param word Executed word
+     * @param programCounter Its index in code space
+     * @param depth Size of stack before execution
+     */
+    public void record(String word, int programCounter, int depth) {
+        words[next] = word;
+        programCounters[next] = programCounter;
+        depths[next] = depth;
+        next = next + 1 == words.length ? 0 : next + 1;
+        count++;
+    }
+
+    /**
+     * @return Amount of records made since the last clear
+     */
+    public long count() {
+        return count;
+    }
+
+    public void clear() {
+        next = 0;
+        count = 0;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder builder = new StringBuilder();
+        int size = (int)Math.min(count, words.length);
+        int index = count > words.length ? next : 0;
+        for(int i = 0; i < size; ++i) {
+            builder.append(String.format("%8d  %-16s depth %d%n", programCounters[index], words[index], depths[index]));
+            index = index + 1 == words.length ? 0 : index + 1;
+        }
+        return builder.toString();
+    }
+}
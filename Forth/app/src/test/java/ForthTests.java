@@ -1,20 +1,54 @@
+import compiler.ConstantFolder;
+import compiler.Dictionary;
+import compiler.Linker;
+import compiler.NumberParser;
+import compiler.Peephole;
+import compiler.Scanner;
+import compiler.StackVerifier;
+import compiler.SymbolTable;
+import compiler.TailCallEliminator;
+import engine.MethodHandleEngine;
+import jit.TieredCompiler;
 import context.Context;
 import exceptions.*;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
 import java.io.InputStream;
 import java.io.PrintStream;
+import java.io.StringWriter;
+import java.net.InetSocketAddress;
+import java.net.Socket;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.stream.Collectors;
 
+import data_types.DataSpace;
+import data_types.IntStack;
 import data_types.MutableInt;
 import out_formatter.OutFormatter;
+import profile.Profiler;
+import trace.ExecutionTrace;
 import tokens.Token;
+import tokens.WordTable;
 import tokens.constructions.*;
 import tokens.instructions.*;
+import tokens.logical_operations.Equality;
+import tokens.logical_operations.Less;
+import tokens.memory.Create;
+import tokens.memory.Store;
+import tokens.operations.Division;
+import tokens.operations.Multiplication;
+import tokens.operations.Plus;
+import tokens.superinstructions.*;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -29,11 +63,11 @@ public class ForthTests {
     void initialize() {
         MutableInt index = new MutableInt(0);
         Map<String, ArrayList<String>> map = new HashMap<>();
-        ArrayList<Integer> stack = new ArrayList<>();
+        IntStack stack = new IntStack();
         ArrayList<String> line = new ArrayList<>();
 
-        context = new Context(map, index, stack, line);
-        outFormatter = new OutFormatter();
+        context = new Context.Builder().definedCommands(map).programCounter(index).stack(stack).line(line).build();
+        outFormatter = context.outFormatterGet();
 
         systemIn = System.in;
         systemOut = System.out;
@@ -57,6 +91,153 @@ public class ForthTests {
         assertTrue(context.outFlush().contains(answer));
     }
 
+    @Test
+    void replLongOutputTest() {
+        Forth forth = new Forth(new ByteArrayInputStream(
+                ": f 3000 0 do i . loop ;\nf\nf 1 0 /\n".getBytes()));
+        System.out.flush();
+
+        StringBuilder numbers = new StringBuilder();
+        for(int i = 0; i < 3000; ++i) {
+            numbers.append(i).append(' ');
+        }
+        assertTrue(numbers.length() > OutFormatter.DEFAULT_THRESHOLD);
+        // Output which reaches threshold is written during line, its answer follows it
+        assertEquals("> < ok\n> < " + numbers + "\n< ok\n> < " + numbers + "\nerror: division by zero\n> ",
+                context.outFlush());
+    }
+
+    @Test
+    void scriptTest() {
+        Forth forth = new Forth(Forth.class.getResourceAsStream("scriptTest.txt"), true);
+        System.out.flush();
+
+        assertEquals(0, forth.getExitCode());
+        assertEquals("14 \n 120 \n ", context.outFlush());
+
+        PrintStream systemErr = System.err;
+        System.setErr(new PrintStream(new ByteArrayOutputStream()));
+        try {
+            forth = new Forth(new ByteArrayInputStream("1 .\n2 swap\n3 .".getBytes()), true);
+        } finally {
+            System.setErr(systemErr);
+        }
+        System.out.flush();
+
+        assertEquals(1, forth.getExitCode());
+        assertEquals("14 \n 120 \n 1 ", context.outFlush());
+    }
+
+    @Test
+    void embeddedTest() {
+        StringWriter first = new StringWriter();
+        StringWriter second = new StringWriter();
+        Forth forth = new Forth(first);
+        Forth other = new Forth(second);
+
+        forth.eval(": square\n    dup * ;\n3 square .");
+        other.eval(": square 1 ;\n3 square");
+        forth.eval("4 square");
+        assertEquals("9 ", first.toString());
+        assertEquals("", second.toString());
+        assertArrayEquals(new int[] { 16 }, forth.getStack());
+        assertArrayEquals(new int[] { 3, 1 }, other.getStack());
+
+        ScriptException exception = assertThrows(ScriptException.class, () -> forth.eval("1 .\n\nfoo"));
+        assertEquals(3, exception.getLine());
+        assertEquals("9 1 ", first.toString());
+
+        List<String> scripts = new ArrayList<>();
+        for(int i = 0; i < 200; ++i) {
+            scripts.add(": sum 0 swap 0 do i + loop ;\n" + i + " sum ." + (i % 50 == 0 ? " drop" : ""));
+        }
+        List<ScriptExecutor.Result> results;
+        try(ScriptExecutor executor = new ScriptExecutor(4)) {
+            results = executor.execute(scripts);
+        }
+        for(int i = 0; i < scripts.size(); ++i) {
+            ScriptExecutor.Result result = results.get(i);
+            assertEquals(i * (i - 1) / 2 + " ", result.getOutput());
+            assertEquals(i % 50 == 0 ? "stack underflow (line 2)" : null, result.getError());
+            assertTrue(result.getNanos() > 0);
+        }
+    }
+
+    @Test
+    void replServerTest() throws Exception {
+        try(ReplServer server = new ReplServer(new InetSocketAddress("127.0.0.1", 0), 2)) {
+            Thread thread = new Thread(server);
+            thread.start();
+            try(Socket first = new Socket("127.0.0.1", server.getPort());
+                Socket second = new Socket("127.0.0.1", server.getPort())) {
+                first.getOutputStream().write(": sq dup *\n3 sq\n".getBytes());
+                second.getOutputStream().write("3 sq\n".getBytes());
+
+                assertEquals("> < ok\n> < ok\n9 \n> ", readAnswers(first, 3));
+                assertEquals("> error: invalid syntax\n3 \n> ", readAnswers(second, 2));
+            }
+            server.close();
+            thread.join(1000);
+            assertFalse(thread.isAlive());
+        }
+    }
+
+    @Test
+    void replServerTimeLimitTest() throws Exception {
+        try(ReplServer server = new ReplServer(new InetSocketAddress("127.0.0.1", 0), 2, 200)) {
+            Thread thread = new Thread(server);
+            thread.start();
+            try(Socket first = new Socket("127.0.0.1", server.getPort());
+                Socket second = new Socket("127.0.0.1", server.getPort())) {
+                first.getOutputStream().write(": x recurse\nx\n1 2 +\n".getBytes());
+                second.getOutputStream().write(": spin 1 0 do 0 +loop ;\nspin\n".getBytes());
+
+                assertEquals("> < ok\n> error: interrupted\n> < ok\n3 \n> ", readAnswers(first, 4));
+                assertEquals("> < ok\n> error: interrupted\n> ", readAnswers(second, 3));
+            }
+            server.close();
+            thread.join(1000);
+            assertFalse(thread.isAlive());
+        }
+    }
+
+    @Test
+    void replServerOutputLimitTest() throws Exception {
+        try(ReplServer server = new ReplServer(new InetSocketAddress("127.0.0.1", 0), 1, 10_000, 1000)) {
+            Thread thread = new Thread(server);
+            thread.start();
+            try(Socket socket = new Socket("127.0.0.1", server.getPort())) {
+                socket.getOutputStream().write(": f 0 do i . loop ;\n50000 f\n1 2 +\n".getBytes());
+
+                String answers = readAnswers(socket, 4);
+                assertTrue(answers.startsWith("> < ok\n> < 0 1 2 "));
+                assertTrue(answers.endsWith("\nerror: output limit exceeded\n> < ok\n3 \n> "));
+                assertTrue(answers.length() < 1100);
+            }
+            server.close();
+            thread.join(1000);
+            assertFalse(thread.isAlive());
+        }
+    }
+
+    // Reads answers till given count of prompts
+    private static String readAnswers(Socket socket, int prompts) throws IOException {
+        StringBuilder text = new StringBuilder();
+        InputStream input = socket.getInputStream();
+        int count = 0;
+        while(count < prompts) {
+            int symbol = input.read();
+            if(symbol < 0) {
+                break;
+            }
+            text.append((char)symbol);
+            if(symbol == ' ' && text.charAt(text.length() - 2) == '>') {
+                count++;
+            }
+        }
+        return text.toString();
+    }
+
     // CONSTRUCTIONS TESTS PART
     @Test
     void commandTest() {
@@ -85,112 +266,236 @@ public class ForthTests {
     @Test
     void doTest() {
         Token doClass = new Do();
+        List<String> words = new ArrayList<>();
+        List<Token> code = new ArrayList<>();
         Exception exception;
 
-        context.lineAdd("do");
+        words.add("do");
+        code.add(doClass);
 
-        exception = assertThrows(Exception.class, () -> doClass.execute(context));
+        exception = assertThrows(Exception.class, () -> Linker.link(words, code));
         assertTrue(exception instanceof SyntaxException);
-        
-        context.lineAdd("loop");
 
-        exception = assertThrows(Exception.class, () -> doClass.execute(context));
+        words.add("loop");
+        code.add(new Loop());
+
+        exception = assertThrows(Exception.class, () -> Linker.link(words, code));
         assertTrue(exception instanceof SyntaxException);
-        
-        context.lineAdd(";");
+
+        words.add(";");
+        code.add(null);
+
+        Linker.link(words, code);
 
         exception = assertThrows(Exception.class, () -> doClass.execute(context));
         assertTrue(exception instanceof StackException);
-        
-        context.stackAdd(6);
-        context.stackAdd(4);
+
+        context.stackPush(6);
+        context.stackPush(4);
 
         doClass.execute(context);
-    } 
+        assertEquals(Do.FRAME_SIZE, context.returnStackSize());
+
+        context.stackPush(4);
+        context.stackPush(4);
+
+        doClass.execute(context);
+        assertEquals(2, context.programCounterGet());
+
+        context.stackPush(1);
+        context.stackPush(5);
+
+        exception = assertThrows(Exception.class, () -> doClass.execute(context));
+        assertTrue(exception instanceof SyntaxException);
+        assertEquals(2, context.stackSize());
+        assertEquals(5, context.stackGet(1));
+    }
+
+    @Test
+    void loopTest() {
+        Token doClass = new Do();
+        Token loopClass = new Loop();
+        Token indexClass = new LoopIndex();
+        Exception exception;
+
+        context.lineAdd("do");
+        context.lineAdd("loop");
+        context.lineAdd(";");
+
+        exception = assertThrows(Exception.class, () -> indexClass.execute(context));
+        assertTrue(exception instanceof SyntaxException);
+
+        context.stackPush(2);
+        context.stackPush(0);
+        doClass.execute(context);
+
+        indexClass.execute(context);
+        assertEquals(0, context.stackGet(context.stackSize() - 1));
+
+        context.programCounterSet(1);
+        loopClass.execute(context);
+        assertEquals(0, context.programCounterGet());
+
+        indexClass.execute(context);
+        assertEquals(1, context.stackGet(context.stackSize() - 1));
+
+        context.programCounterSet(1);
+        loopClass.execute(context);
+        assertEquals(2, context.programCounterGet());
+        assertEquals(0, context.returnStackSize());
+    }
 
     @Test
     void ifTest() {
         Token ifClass = new If();
+        List<String> words = new ArrayList<>();
+        List<Token> code = new ArrayList<>();
         Exception exception;
 
-        context.lineAdd("if");
+        words.add("if");
+        code.add(ifClass);
 
-        exception = assertThrows(Exception.class, () -> ifClass.execute(context));
+        exception = assertThrows(Exception.class, () -> Linker.link(words, code));
         assertTrue(exception instanceof SyntaxException);
 
-        context.lineAdd("else");
+        words.add("else");
+        code.add(new Else());
 
-        exception = assertThrows(Exception.class, () -> ifClass.execute(context));
+        exception = assertThrows(Exception.class, () -> Linker.link(words, code));
         assertTrue(exception instanceof SyntaxException);
 
-        context.lineAdd("then");
+        words.add("then");
+        code.add(new Then());
 
-        exception = assertThrows(Exception.class, () -> ifClass.execute(context));
+        exception = assertThrows(Exception.class, () -> Linker.link(words, code));
         assertTrue(exception instanceof SyntaxException);
 
-        context.lineAdd(";");
+        words.add(";");
+        code.add(null);
+
+        Linker.link(words, code);
 
         exception = assertThrows(Exception.class, () -> ifClass.execute(context));
         assertTrue(exception instanceof StackException);
 
-        context.stackAdd(2);
+        context.stackPush(2);
+
+        ifClass.execute(context);
+        assertEquals(0, context.programCounterGet());
+
+        context.stackPush(0);
 
         ifClass.execute(context);
+        assertEquals(1, context.programCounterGet());
+    }
+
+    @Test
+    void definitionEndingTest() {
+        // ';' which finishes definition isn't ';' of construction
+        List<String> words = new ArrayList<>(List.of("if", "then", ";"));
+        List<Token> code = new ArrayList<>(List.of(new If(), new Then(), new Exit()));
+        assertThrows(SyntaxException.class, () -> Linker.link(words, code));
+        words.add(";");
+        code.add(2, null);
+        Linker.link(words, code);
+
+        for(String engine : new String[] { "token", "methodhandle" }) {
+            System.setProperty("forth.engine", engine);
+            try {
+                Forth forth = new Forth(new StringWriter());
+                assertThrows(ScriptException.class, () -> forth.eval(": f 1 if 5 then"));
+                assertThrows(ScriptException.class, () -> forth.eval(": sum 0 swap 0 do i + loop"));
+                assertThrows(ScriptException.class, () -> forth.eval(": g 1 0 do 2 +loop"));
+                forth.eval(": f 1 if 5 then ;\n: sum 0 swap 0 do i + loop ;\n7 f 4 sum");
+                assertArrayEquals(new int[] { 7, 5, 6 }, forth.getStack());
+            } finally {
+                System.clearProperty("forth.engine");
+            }
+        }
     }
 
     @Test
     void elseTest() {
         Token elseClass = new Else();
+        List<String> words = new ArrayList<>();
+        List<Token> code = new ArrayList<>();
         Exception exception;
 
-        context.lineAdd("else");
+        words.add("else");
+        code.add(elseClass);
 
-        exception = assertThrows(Exception.class, () -> elseClass.execute(context));
+        exception = assertThrows(Exception.class, () -> Linker.link(words, code));
         assertTrue(exception instanceof SyntaxException);
 
-        context.lineAdd("then");
+        words.add("then");
+        code.add(new Then());
+        words.add(";");
+        code.add(null);
 
-        exception = assertThrows(Exception.class, () -> elseClass.execute(context));
+        exception = assertThrows(Exception.class, () -> Linker.link(words, code));
         assertTrue(exception instanceof SyntaxException);
 
-        context.lineAdd(";");
+        words.add(0, "if");
+        code.add(0, new If());
 
-        exception = assertThrows(Exception.class, () -> elseClass.execute(context));
-        assertTrue(exception instanceof SyntaxException);
-
-        context.lineClear();
-        context.lineAdd("if");
-        context.lineAdd("else");
-        context.lineAdd("then");
-        context.lineAdd(";");
+        Linker.link(words, code);
         context.programCounterSet(1);
 
         elseClass.execute(context);
+        assertEquals(3, context.programCounterGet());
     }
 
     @Test
     void thenTest() {
         Token thenClass = new Then();
+        List<String> words = new ArrayList<>();
+        List<Token> code = new ArrayList<>();
         Exception exception;
 
-        context.lineAdd("then");
+        words.add("then");
+        code.add(thenClass);
 
-        exception = assertThrows(Exception.class, () -> thenClass.execute(context));
+        exception = assertThrows(Exception.class, () -> Linker.link(words, code));
         assertTrue(exception instanceof SyntaxException);
 
-        context.lineAdd(";");
+        words.add(";");
+        code.add(null);
 
-        exception = assertThrows(Exception.class, () -> thenClass.execute(context));
+        exception = assertThrows(Exception.class, () -> Linker.link(words, code));
         assertTrue(exception instanceof SyntaxException);
 
-        context.lineClear();
-        context.lineAdd("if");
-        context.lineAdd("else");
-        context.lineAdd("then");
-        context.lineAdd(";");
-        context.programCounterSet(2);
+        words.add(0, "if");
+        code.add(0, new If());
+
+        Linker.link(words, code);
+        context.programCounterSet(1);
 
         thenClass.execute(context);
+        assertEquals(2, context.programCounterGet());
+    }
+
+    @Test
+    void callTest() {
+        Call callClass = new Call("command");
+        Token exitClass = new Exit();
+        Exception exception;
+
+        exception = assertThrows(Exception.class, () -> callClass.execute(context));
+        assertTrue(exception instanceof SyntaxException);
+
+        callClass.setAddress(5);
+        context.programCounterSet(2);
+
+        callClass.execute(context);
+        assertEquals(4, context.programCounterGet());
+        assertEquals(1, context.returnStackSize());
+
+        exitClass.execute(context);
+        assertEquals(2, context.programCounterGet());
+        assertEquals(0, context.returnStackSize());
+
+        exception = assertThrows(Exception.class, () -> exitClass.execute(context));
+        assertTrue(exception instanceof SyntaxException);
     }
 
     // INSTRUCTIONS TESTS PART
@@ -237,7 +542,7 @@ public class ForthTests {
         assertTrue(exception instanceof StackException);
 
         int testNumber = 1;
-        context.stackAdd(testNumber);
+        context.stackPush(testNumber);
 
         dropClass.execute(context);
 
@@ -257,7 +562,7 @@ public class ForthTests {
         assertTrue(exception instanceof StackException);
 
         int testNumber = 1;
-        context.stackAdd(testNumber);
+        context.stackPush(testNumber);
 
         dropAndPrintClass.execute(context);
         outFormatter.flush();
@@ -274,7 +579,7 @@ public class ForthTests {
         assertTrue(exception instanceof StackException);
 
         int testNumber = 1;
-        context.stackAdd(testNumber);
+        context.stackPush(testNumber);
 
         dupClass.execute(context);
 
@@ -292,13 +597,13 @@ public class ForthTests {
 
         int testNumber = 1;
         int trashNumber = 0;
-        context.stackAdd(testNumber);
+        context.stackPush(testNumber);
 
         exception = assertThrows(Exception.class, () -> overClass.execute(context));
         assertTrue(exception instanceof StackException);
 
-        context.stackAdd(testNumber);
-        context.stackAdd(trashNumber);
+        context.stackPush(testNumber);
+        context.stackPush(trashNumber);
 
         overClass.execute(context);
 
@@ -310,20 +615,20 @@ public class ForthTests {
         Token rotClass = new Rot();
         Exception exception;
 
-        context.stackAdd(1);
+        context.stackPush(1);
 
         exception = assertThrows(Exception.class, () -> rotClass.execute(context));
         assertTrue(exception instanceof StackException);
 
-        context.stackAdd(1);
-        context.stackAdd(2);
+        context.stackPush(1);
+        context.stackPush(2);
 
         exception = assertThrows(Exception.class, () -> rotClass.execute(context));
         assertTrue(exception instanceof StackException);
 
-        context.stackAdd(1);
-        context.stackAdd(2);
-        context.stackAdd(3);
+        context.stackPush(1);
+        context.stackPush(2);
+        context.stackPush(3);
 
         rotClass.execute(context);
 
@@ -342,17 +647,523 @@ public class ForthTests {
 
         int testNumberA = 0;
         int testNumberB = 1;
-        context.stackAdd(testNumberA);
+        context.stackPush(testNumberA);
 
         exception = assertThrows(Exception.class, () -> swapClass.execute(context));
         assertTrue(exception instanceof StackException);
 
-        context.stackAdd(testNumberA);
-        context.stackAdd(testNumberB);
+        context.stackPush(testNumberA);
+        context.stackPush(testNumberB);
 
         swapClass.execute(context);
 
         assertEquals(testNumberA, context.stackGet(context.stackSize() - 1));
         assertEquals(testNumberB, context.stackGet(context.stackSize() - 2));
     }
+
+    // COMPILER TESTS PART
+    @Test
+    void constantFolderTest() {
+        ConstantFolder constantFolder = new ConstantFolder();
+        List<String> words = new ArrayList<>(List.of("60", "60", "*", "24", "*", "1", "0", "/", ";"));
+        List<Token> code = new ArrayList<>(List.of(new Literal(60), new Literal(60), new Multiplication(),
+                new Literal(24), new Multiplication(), new Literal(1), new Literal(0), new Division()));
+        code.add(null);
+
+        assertTrue(constantFolder.fold(words, code));
+        assertEquals(List.of("86400", "1", "0", "/", ";"), words);
+        assertEquals(86400, ((Literal)code.get(0)).get());
+
+        words = new ArrayList<>(List.of("1", "2", "<", "if", "3", "else", "4", "then", ";", "5", "+", ";"));
+        code = new ArrayList<>(List.of(new Literal(1), new Literal(2), new Less(), new If(), new Literal(3),
+                new Else(), new Literal(4), new Then()));
+        code.add(null);
+        code.add(new Literal(5));
+        code.add(new Plus());
+        code.add(null);
+
+        assertTrue(constantFolder.fold(words, code));
+        assertEquals(List.of("8", ";"), words);
+
+        words = new ArrayList<>(List.of("0", "if", "3", "then", ";", "dup"));
+        code = new ArrayList<>(List.of(new Literal(0), new If(), new Literal(3), new Then()));
+        code.add(null);
+        code.add(new Dup());
+
+        assertTrue(constantFolder.fold(words, code));
+        assertEquals(List.of("dup"), words);
+        assertFalse(constantFolder.fold(words, code));
+    }
+
+    @Test
+    void peepholeTest() {
+        Peephole peephole = new Peephole();
+        peephole.addRule(new Class<?>[]{Dup.class, Multiplication.class}, Square.class);
+        peephole.addRule(new Class<?>[]{Literal.class, Plus.class}, PlusLiteral.class);
+        peephole.addRule(new Class<?>[]{Literal.class, Equality.class}, EqualityLiteral.class);
+        peephole.addRule(new Class<?>[]{Literal.class, Equality.class, If.class}, IfEqualityLiteral.class);
+
+        List<String> words = List.of("3", "+", "dup", "*", "0", "=", "if", "1", "then", ";");
+        List<Token> code = new ArrayList<>(List.of(new Literal(3), new Plus(), new Dup(), new Multiplication(),
+                new Literal(0), new Equality(), new If(), new Literal(1), new Then()));
+        code.add(null);
+        Linker.link(words, code);
+        int target = ((If)code.get(6)).getTarget();
+
+        assertEquals(3, peephole.optimize(code));
+        assertTrue(code.get(0) instanceof PlusLiteral);
+        assertTrue(code.get(2) instanceof Square);
+        assertTrue(code.get(4) instanceof IfEqualityLiteral);
+
+        context.stackPush(1);
+        context.programCounterSet(0);
+        code.get(0).execute(context);
+        assertEquals(1, context.programCounterGet());
+        context.programCounterSet(2);
+        code.get(2).execute(context);
+        assertEquals(3, context.programCounterGet());
+        assertEquals(16, context.stackPeek());
+
+        context.programCounterSet(4);
+        code.get(4).execute(context);
+        assertEquals(target, context.programCounterGet());
+        assertEquals(0, context.stackSize());
+
+        context.stackPush(0);
+        context.programCounterSet(4);
+        code.get(4).execute(context);
+        assertEquals(6, context.programCounterGet());
+
+        Exception exception = assertThrows(Exception.class, () -> code.get(0).execute(context));
+        assertTrue(exception instanceof StackException);
+    }
+
+    @Test
+    void tieredCompilerTest() {
+        List<String> words = new ArrayList<>(List.of("dup", "*", ";", "0", "swap", "0", "do", "i", "+", "loop", ";", ";"));
+        List<Token> code = new ArrayList<>(List.of(new Dup(), new Multiplication(), new Exit(), new Literal(0),
+                new Swap(), new Literal(0), new Do(), new LoopIndex(), new Plus(), new Loop()));
+        code.add(null);
+        code.add(new Exit());
+        Linker.link(words.subList(3, words.size()), code.subList(3, code.size()), 3);
+
+        TieredCompiler compiler = new TieredCompiler(words, code, 2);
+        Call square = new Call("square", compiler);
+        square.setAddress(0);
+        Call sum = new Call("sum", compiler);
+        sum.setAddress(3);
+
+        context.stackPush(7);
+        square.execute(context);
+        assertNull(square.getCompiled());
+        assertEquals(-1, context.programCounterGet());
+        context.returnStackPop();
+
+        context.programCounterSet(20);
+        square.execute(context);
+        assertNotNull(square.getCompiled());
+        assertEquals(20, context.programCounterGet());
+        assertEquals(0, context.returnStackSize());
+        assertEquals(49, context.stackPeek());
+
+        context.stackClear();
+        context.stackPush(5);
+        assertTrue(compiler.compile(sum));
+        sum.invoke(context);
+        assertEquals(10, context.stackPeek());
+        assertEquals(0, context.returnStackSize());
+
+        context.stackClear();
+        Exception exception = assertThrows(Exception.class, () -> square.execute(context));
+        assertTrue(exception instanceof StackException);
+    }
+
+    @Test
+    void methodHandleEngineTest() {
+        List<String> words = new ArrayList<>(List.of("dup", "*", ";", "3", "0", "do", "i", "sq", "loop", ";", "1", "if", "7", "then", ";"));
+        List<Token> code = new ArrayList<>(List.of(new Dup(), new Multiplication(), new Exit(), new Literal(3),
+                new Literal(0), new Do(), new LoopIndex()));
+        Call square = new Call("sq");
+        square.setAddress(0);
+        code.add(square);
+        code.add(new Loop());
+        code.add(null);
+        code.add(new Literal(1));
+        code.add(new If());
+        code.add(new Literal(7));
+        code.add(new Then());
+        code.add(null);
+        Linker.link(words.subList(3, words.size()), code.subList(3, code.size()), 3);
+
+        MethodHandleEngine engine = new MethodHandleEngine(words, code, context);
+        engine.execute(3);
+
+        assertEquals(4, context.stackSize());
+        assertEquals(0, context.stackGet(0));
+        assertEquals(1, context.stackGet(1));
+        assertEquals(4, context.stackGet(2));
+        assertEquals(7, context.stackGet(3));
+        assertEquals(0, context.returnStackSize());
+
+        square.setAddress(Call.UNDEFINED);
+        engine.defined(square);
+        Exception exception = assertThrows(Exception.class, () -> engine.execute(3));
+        assertTrue(exception instanceof SyntaxException);
+    }
+
+    @Test
+    void tailCallTest() {
+        List<Token> code = new ArrayList<>(List.of(new Call("h"), new Literal(0), new If(), new Call("f"),
+                new Else(), new Call("g"), new Then()));
+        code.add(null);
+        code.add(new Exit());
+        ((If)code.get(2)).setTarget(14);
+        ((Else)code.get(4)).setTarget(17);
+        assertEquals(2, TailCallEliminator.eliminate(code, 10));
+        assertTrue(code.get(0) instanceof Call);
+        assertTrue(code.get(3) instanceof TailCall);
+        assertTrue(code.get(5) instanceof TailCall);
+
+        String script = ": countdown dup 0 > if 1 - recurse then ;\n"
+                + ": gcd dup 0 = if drop else swap over mod recurse then ;\n"
+                + ": even dup 0 = if drop 1 else 1 - odd then ;\n"
+                + ": odd dup 0 = if drop 0 else 1 - even then ;\n"
+                + "1000000 countdown 1071 462 gcd 1000001 even";
+        for(String engine : new String[] { "token", "methodhandle" }) {
+            for(String jit : new String[] { "interpreter", "tiered" }) {
+                System.setProperty("forth.engine", engine);
+                System.setProperty("forth.jit", jit);
+                try {
+                    Forth forth = new Forth(new StringWriter());
+                    forth.eval(script);
+                    assertArrayEquals(new int[] { 0, 21, 0 }, forth.getStack());
+                } finally {
+                    System.clearProperty("forth.engine");
+                    System.clearProperty("forth.jit");
+                }
+            }
+        }
+    }
+
+    @Test
+    void stackVerifierTest() {
+        List<Token> code = new ArrayList<>(List.of(new Literal(1), new Over(), new Plus(), new If(), new Swap(),
+                new Drop(), new Dup(), new Exit()));
+        ((If)code.get(3)).setTarget(15);
+        assertEquals(2, StackVerifier.verify(code, 10));
+        assertTrue(code.get(0) instanceof VerifiedBlock);
+        assertEquals(1, ((VerifiedBlock)code.get(0)).getDepth());
+        assertEquals(3, ((VerifiedBlock)code.get(0)).size());
+        assertTrue(code.get(1) instanceof Over);
+        assertEquals(2, ((VerifiedBlock)code.get(4)).getDepth());
+        assertTrue(code.get(6) instanceof Dup);
+
+        context.stackPush(5);
+        code.get(0).execute(context);
+        assertEquals(2, context.programCounterGet());
+        assertEquals(6, context.stackPop());
+        assertEquals(5, context.stackPop());
+        context.programCounterSet(0);
+        assertThrows(StackException.class, () -> code.get(0).execute(context));
+        assertEquals(0, context.stackSize());
+
+        // Block which doesn't fit into stack is executed with checks till overflow
+        List<Token> pushes = new ArrayList<>(List.of(new Literal(1), new Literal(2), new Literal(3), new Exit()));
+        assertEquals(1, StackVerifier.verify(pushes, 0));
+        assertEquals(3, ((VerifiedBlock)pushes.get(0)).getGrowth());
+        Context small = new Context.Builder().stack(new IntStack(2)).build();
+        Exception overflow = assertThrows(StackException.class, () -> pushes.get(0).execute(small));
+        assertEquals("stack overflow", overflow.getMessage());
+        assertEquals(2, small.stackSize());
+
+        String script = ": f over over + * 1 - ;\n"
+                + ": g 7 0 ! + ;\n"
+                + ": h 0 10 0 do i dup * + loop ;\n"
+                + "3 4 f h";
+        // Every word written by StackCache of compiled block, comparisons on borders of int
+        String words = ": c3 over over < rot rot over over > rot rot = ;\n"
+                + ": c1 dup 5 < over 5 > rot 5 = ;\n"
+                + ": ar 3 - swap 2 * + 7 + dup * swap drop 1 cells + ;\n"
+                + ": td over over + ;\n"
+                + ": lt 0 + < ;\n"
+                + ": gt 0 + > ;\n"
+                + "4 4 c3 4 c1 5 c1 6 c1 9 1 4 ar 3 4 td "
+                + "2147483647 -2147483648 lt -2147483648 2147483647 lt 2147483647 -2147483648 gt -2147483648 2147483647 gt";
+        int[] results = { 4, 4, 1, 0, 4, 0, 0, 5, 0, 1, 6, 0, 104, 3, 4, 7, 0, 1, 1, 0 };
+        for(String verify : new String[] { "true", "false" }) {
+            for(String jit : new String[] { "interpreter", "all" }) {
+                System.setProperty("forth.verify", verify);
+                System.setProperty("forth.jit", jit);
+                try {
+                    Forth forth = new Forth(new StringWriter());
+                    forth.eval(script);
+                    assertArrayEquals(new int[] { 3, 27, 285 }, forth.getStack());
+                    // Failed block is executed with checks, so store before underflow is done
+                    assertThrows(ScriptException.class, () -> forth.eval("drop drop drop g"));
+                    forth.eval("0 @");
+                    assertArrayEquals(new int[] { 7 }, forth.getStack());
+
+                    Forth other = new Forth(new StringWriter());
+                    other.eval(words);
+                    assertArrayEquals(results, other.getStack());
+                } finally {
+                    System.clearProperty("forth.verify");
+                    System.clearProperty("forth.jit");
+                }
+            }
+        }
+    }
+
+    @Test
+    void dataSpaceTest() {
+        DataSpace dataSpace = new DataSpace(16);
+        dataSpace.allot(6);
+        dataSpace.align();
+        assertEquals(8, dataSpace.here());
+        dataSpace.store(12, -1);
+        assertEquals(-1, dataSpace.fetch(12));
+        assertEquals(0xff, dataSpace.fetchChar(12));
+        dataSpace.move(12, 10, 4);
+        assertEquals(-1, dataSpace.fetch(10));
+        dataSpace.fill(0, 4, 7);
+        assertEquals(0x07070707, dataSpace.fetch(0));
+        assertThrows(MemoryException.class, () -> dataSpace.fetch(13));
+        assertThrows(MemoryException.class, () -> dataSpace.storeChar(-1, 0));
+        assertThrows(MemoryException.class, () -> dataSpace.allot(9));
+
+        StringWriter out = new StringWriter();
+        Forth forth = new Forth(out);
+        forth.eval("variable total\n"
+                + "10 constant size\n"
+                + "create flags size allot\n"
+                + "create hist 10 cells allot\n"
+                + "hist 10 cells 0 fill\n"
+                + ": bump cells hist + dup @ 1 + swap ! ;\n"
+                + ": sieve flags size 1 fill 4 2 do flags i + c@ if size i dup * ?do 0 flags i + c! j +loop ; then ; loop ;\n"
+                + "3 bump 3 bump 5 bump sieve\n"
+                + "size 2 do flags i + c@ total @ + total ! loop ;\n"
+                + "total @ . hist 3 cells + @ . hist 5 cells + @ . here hist - .");
+        assertEquals("4 2 1 40 ", out.toString());
+        assertThrows(ScriptException.class, () -> forth.eval("-4 @"));
+    }
+
+    @Test
+    void imageTest() throws Exception {
+        Path path = Files.createTempFile("forth", ".img");
+        try {
+            StringWriter out = new StringWriter();
+            Forth forth = new Forth(out);
+            forth.eval("variable total\n"
+                    + "create squares 5 cells allot\n"
+                    + "hex ff constant mask decimal\n"
+                    + ": fill-squares 5 0 do i dup * squares i cells + ! loop ;\n"
+                    + ": sum 0 5 0 do squares i cells + @ + loop ;\n"
+                    + ": countdown dup 0 > if 1 - countdown then ;\n"
+                    + "fill-squares 7 total ! save-image " + path);
+
+            System.setProperty("forth.engine", "methodhandle");
+            Forth other;
+            try {
+                other = new Forth(out);
+            } finally {
+                System.clearProperty("forth.engine");
+            }
+            other.eval("1 load-image " + path + "\n"
+                    + "sum . total @ . mask . 100000 countdown .\n"
+                    + ": double 2 *\n"
+                    + "21 double .");
+            assertEquals("30 7 255 0 42 ", out.toString());
+            assertArrayEquals(new int[] { 1 }, other.getStack());
+
+            Files.write(path, new byte[] { 1, 2, 3 });
+            assertThrows(ScriptException.class, () -> other.eval("load-image " + path));
+            assertThrows(ScriptException.class, () -> other.eval("load-image " + path + ".missing"));
+            other.eval("sum .");
+            assertEquals("30 7 255 0 42 30 ", out.toString());
+        } finally {
+            Files.delete(path);
+        }
+    }
+
+    @Test
+    void profilerTest() {
+        Profiler profiler = new Profiler();
+        List<String> words = List.of("outer", "inner", "dup");
+        profiler.enter("outer", 0);
+        profiler.builtin(new Dup(), words, 2, 5);
+        profiler.enter("inner", 10);
+        profiler.builtin(new Dup(), words, 2, 20);
+        profiler.enter("inner", 12);
+        profiler.exit(14);
+        profiler.exit(40);
+        profiler.exit(100);
+        profiler.stacks(3, 2);
+        List<String> report = profiler.toString().lines().collect(Collectors.toList());
+        assertTrue(report.contains(String.format("%-20s %-10s %12d %15d %15d", "outer", "colon", 1, 100, 65)));
+        assertTrue(report.contains(String.format("%-20s %-10s %12d %15d %15d", "inner", "colon", 2, 30, 10)));
+        assertTrue(report.contains(String.format("%-20s %-10s %12d %15d %15d", "dup", "builtin", 2, 25, 25)));
+        assertTrue(report.contains("stack high-water: data 3, return 2"));
+
+        StringWriter out = new StringWriter();
+        System.setProperty("forth.profile", "true");
+        try {
+            Forth forth = new Forth(out);
+            forth.eval(": sq dup *\n"
+                    + ": sum-sq 0 4 0 do i sq + loop ;\n"
+                    + "sum-sq . 2 sq .\n"
+                    + ".profile");
+            assertTrue(out.toString().startsWith("14 4 word"));
+            assertTrue(forth.getProfile().contains(String.format("%-20s %-10s %12d", "sq", "colon", 5)));
+            assertTrue(forth.getProfile().contains(String.format("%-20s %-10s %12d", "dup *", "builtin", 5)));
+            assertTrue(forth.getProfile().contains(String.format("%-20s %-10s %12d", "sum-sq", "colon", 1)));
+        } finally {
+            System.clearProperty("forth.profile");
+        }
+        assertNull(new Forth(out).getProfile());
+    }
+
+    @Test
+    void dictionaryTest() {
+        Map<String, Class<?>> classes = new HashMap<>();
+        classes.put("dup", Dup.class);
+        classes.put("swap", Swap.class);
+        classes.put("+", Plus.class);
+        classes.put("if", If.class);
+        classes.put("then", Then.class);
+        Dictionary dictionary = new Dictionary(classes);
+
+        assertEquals(5, dictionary.size());
+        assertTrue(dictionary.get("dup") instanceof Dup);
+        assertTrue(dictionary.get("+") instanceof Plus);
+        assertSame(dictionary.get("swap"), dictionary.get("swap"));
+        assertTrue(dictionary.get("if") instanceof If);
+        assertNotSame(dictionary.get("if"), dictionary.get("if"));
+        assertNull(dictionary.get("drop"));
+        assertFalse(dictionary.contains("DUP"));
+        assertTrue(dictionary.contains("then"));
+
+        classes.put("string", String.class);
+        assertThrows(ConfigException.class, () -> new Dictionary(classes));
+
+        WordTable table = new WordTable() {
+            public String[] words() {
+                return new String[] { "dup", "else", "dup" };
+            }
+
+            public Token create(int index) {
+                return index == 1 ? new Else() : new Dup();
+            }
+        };
+        assertThrows(ConfigException.class, () -> new Dictionary(table));
+
+        Dictionary builtins = Forth.createBuiltins();
+        assertTrue(builtins.get("create") instanceof Create);
+        assertTrue(builtins.get("!") instanceof Store);
+        assertTrue(builtins.get(":") instanceof Command);
+        assertNull(builtins.get("nothing"));
+    }
+
+    @Test
+    void scannerTest() {
+        Scanner scanner = new Scanner();
+        List<String> words = new ArrayList<>();
+
+        scanner.scan("  1 dup\t+  .\"  hello  world\" cr .\"", words);
+
+        assertEquals(List.of("1", "dup", "+", ".\"", " ", " hello  world\"", "cr", ".\""), words);
+
+        List<String> again = new ArrayList<>();
+        scanner.scan("dup", again);
+
+        assertSame(words.get(1), again.get(0));
+
+        SymbolTable symbols = new SymbolTable();
+        for(int i = 0; i < SymbolTable.LIMIT; ++i) {
+            String number = Integer.toString(i);
+            symbols.intern(number, 0, number.length());
+        }
+        assertEquals(SymbolTable.LIMIT, symbols.size());
+        assertEquals("dup", symbols.intern("dup", 0, 3));
+        assertEquals(1, symbols.size());
+    }
+
+    @Test
+    void numberParserTest() {
+        NumberParser numberParser = new NumberParser();
+
+        assertEquals(42, NumberParser.parse("42", 10));
+        assertEquals(-7, NumberParser.parse("-7", 10));
+        assertEquals(5, NumberParser.parse("+5", 10));
+        assertEquals(255, NumberParser.parse("$FF", 10));
+        assertEquals(-255, NumberParser.parse("$-ff", 10));
+        assertEquals(10, NumberParser.parse("%1010", 10));
+        assertEquals(10, NumberParser.parse("#10", 16));
+        assertEquals(255, NumberParser.parse("ff", 16));
+        assertEquals(97, NumberParser.parse("'a'", 10));
+        assertEquals(Integer.MIN_VALUE, NumberParser.parse("-2147483648", 10));
+
+        assertEquals(NumberParser.NOT_A_NUMBER, NumberParser.parse("dup", 10));
+        assertEquals(NumberParser.NOT_A_NUMBER, NumberParser.parse("-", 10));
+        assertEquals(NumberParser.NOT_A_NUMBER, NumberParser.parse("$", 10));
+        assertEquals(NumberParser.NOT_A_NUMBER, NumberParser.parse("1-", 10));
+        assertEquals(NumberParser.NOT_A_NUMBER, NumberParser.parse("2147483648", 10));
+        assertEquals(NumberParser.NOT_A_NUMBER, NumberParser.parse("12", 2));
+
+        assertSame(numberParser.literal("12", 10), numberParser.literal("12", 10));
+        assertNull(numberParser.literal("loop", 10));
+        assertEquals(18, numberParser.literal("12", 16).get());
+    }
+
+    // DATA TYPES TESTS PART
+    @Test
+    void intStackTest() {
+        IntStack stack = new IntStack(4);
+        Exception exception;
+
+        exception = assertThrows(Exception.class, stack::pop);
+        assertTrue(exception instanceof StackException);
+
+        for(int i = 0; i < 4; ++i) {
+            stack.push(i);
+        }
+
+        exception = assertThrows(Exception.class, () -> stack.push(4));
+        assertTrue(exception instanceof StackException);
+
+        assertEquals(3, stack.peek());
+        assertEquals(1, stack.pick(2));
+        assertEquals(3, stack.pop());
+        assertEquals(3, stack.size());
+
+        exception = assertThrows(Exception.class, () -> stack.pick(3));
+        assertTrue(exception instanceof StackException);
+
+        assertTrue(stack.reserve(1));
+        assertFalse(stack.reserve(2));
+        stack.pushUnchecked(7);
+        assertEquals(7, stack.peekUnchecked());
+        assertEquals(2, stack.pickUnchecked(1));
+        assertEquals(7, stack.popUnchecked());
+
+        IntStack growing = new IntStack();
+        assertTrue(growing.reserve(100));
+        for(int i = 0; i < 100; ++i) {
+            growing.pushUnchecked(i);
+        }
+        assertEquals(99, growing.popUnchecked());
+    }
+
+    @Test
+    void executionTraceTest() {
+        ExecutionTrace trace = new ExecutionTrace(2);
+
+        trace.record("dup", 0, 1);
+        trace.record("*", 1, 2);
+        trace.record(".", 2, 1);
+
+        assertEquals(3, trace.count());
+        String dump = trace.toString();
+        assertFalse(dump.contains("dup"));
+        assertTrue(dump.indexOf("*") < dump.indexOf("."));
+    }
 }
@@ -0,0 +1,140 @@
+package processor;
+
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.Filer;
+import javax.annotation.processing.Messager;
+import javax.annotation.processing.RoundEnvironment;
+import javax.annotation.processing.SupportedAnnotationTypes;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.AnnotationMirror;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ElementKind;
+import javax.lang.model.element.ExecutableElement;
+import javax.lang.model.element.Modifier;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.util.ElementFilter;
+import javax.tools.Diagnostic;
+import javax.tools.StandardLocation;
+import java.io.IOException;
+import java.io.Writer;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+
+/**
+ * {@code WordProcessor} collects token classes annotated by {@code tokens.Word} and
+ * generates {@code tokens.GeneratedWordTable}, which creates their tokens by
+ * constructors. Table is registered in META-INF/services/tokens.WordTable, so
+ * interpreter finds it without configuration. Annotated class must be public
+ * token with public constructor without parameters, every word is unique
+ */
+@SupportedAnnotationTypes(WordProcessor.WORD)
+public class WordProcessor extends AbstractProcessor {
+    static final String WORD = "tokens.Word";
+    private static final String TOKEN = "tokens.Token";
+    private static final String PACKAGE = "tokens";
+    private static final String TABLE = "GeneratedWordTable";
+
+    private boolean generated;
+
+    @Override
+    public SourceVersion getSupportedSourceVersion() {
+        return SourceVersion.latestSupported();
+    }
+
+    @Override
+    public boolean process(Set<? extends TypeElement> annotations, RoundEnvironment round) {
+        if(generated || annotations.isEmpty()) {
+            return false;
+        }
+        generated = true;
+
+        Messager messager = processingEnv.getMessager();
+        TypeElement word = processingEnv.getElementUtils().getTypeElement(WORD);
+        TypeElement token = processingEnv.getElementUtils().getTypeElement(TOKEN);
+        Map<String, TypeElement> classes = new TreeMap<>();
+        boolean valid = true;
+        for(Element element : round.getElementsAnnotatedWith(word)) {
+            TypeElement type = (TypeElement)element;
+            String value = value(type, word);
+            String error = check(type, token);
+            if(error == null && classes.containsKey(value)) {
+                error = "word " + value + " is already taken by " + classes.get(value).getQualifiedName();
+            }
+            if(error != null) {
+                messager.printMessage(Diagnostic.Kind.ERROR, error, element);
+                valid = false;
+            } else {
+                classes.put(value, type);
+            }
+        }
+
+        if(valid) {
+            try {
+                write(classes);
+            } catch(IOException exception) {
+                messager.printMessage(Diagnostic.Kind.ERROR, "table of words isn't generated: " + exception.getMessage());
+            }
+        }
+        return true;
+    }
+
+    // Tells why class can't be instantiated as token or null if it can
+    private String check(TypeElement type, TypeElement token) {
+        if(type.getKind() != ElementKind.CLASS || type.getModifiers().contains(Modifier.ABSTRACT)) {
+            return "word must name a class which isn't abstract";
+        }
+        if(!type.getModifiers().contains(Modifier.PUBLIC)) {
+            return "class of word must be public";
+        }
+        if(!processingEnv.getTypeUtils().isAssignable(type.asType(), token.asType())) {
+            return "class of word must be a token";
+        }
+        for(ExecutableElement constructor : ElementFilter.constructorsIn(type.getEnclosedElements())) {
+            if(constructor.getParameters().isEmpty() && constructor.getModifiers().contains(Modifier.PUBLIC)) {
+                return null;
+            }
+        }
+        return "class of word must have public constructor without parameters";
+    }
+
+    private String value(TypeElement type, TypeElement word) {
+        for(AnnotationMirror mirror : type.getAnnotationMirrors()) {
+            if(mirror.getAnnotationType().asElement().equals(word)) {
+                return (String)mirror.getElementValues().values().iterator().next().getValue();
+            }
+        }
+        return null;
+    }
+
+    private void write(Map<String, TypeElement> classes) throws IOException {
+        Filer filer = processingEnv.getFiler();
+        try(Writer out = filer.createSourceFile(PACKAGE + "." + TABLE, classes.values().toArray(new Element[0]))
+                .openWriter()) {
+            out.write("package " + PACKAGE + ";\n\n");
+            out.write("/**\n * Table of commands annotated by {@code Word}, generated by {@code WordProcessor}\n */\n");
+            out.write("@javax.annotation.processing.Generated(\"" + WordProcessor.class.getName() + "\")\n");
+            out.write("public final class " + TABLE + " implements WordTable {\n");
+            out.write("    private static final String[] WORDS = {\n");
+            for(String word : classes.keySet()) {
+                out.write("        \"" + escape(word) + "\",\n");
+            }
+            out.write("    };\n\n");
+            out.write("    public String[] words() {\n        return WORDS.clone();\n    }\n\n");
+            out.write("    public Token create(int index) {\n        switch(index) {\n");
+            int index = 0;
+            for(TypeElement type : classes.values()) {
+                out.write("            case " + index++ + ": return new " + type.getQualifiedName() + "();\n");
+            }
+            out.write("            default: throw new IndexOutOfBoundsException(index);\n        }\n    }\n}\n");
+        }
+        try(Writer out = filer.createResource(StandardLocation.CLASS_OUTPUT, "", "META-INF/services/" + PACKAGE + ".WordTable")
+                .openWriter()) {
+            out.write(PACKAGE + "." + TABLE + "\n");
+        }
+    }
+
+    private static String escape(String word) {
+        return word.replace("\\", "\\\\").replace("\"", "\\\"");
+    }
+}